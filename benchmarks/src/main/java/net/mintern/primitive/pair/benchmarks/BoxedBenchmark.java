@@ -0,0 +1,81 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.mintern.primitive.pair.IntPair;
+import net.mintern.primitive.pair.LongPair;
+import net.mintern.primitive.pair.ObjDoublePair;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@code boxed()}, which is paid whenever a primitive pair is handed to an
+ * API that expects an Apache Commons {@link Pair}.
+ *
+ * @author Brandon Mintern
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoxedBenchmark {
+
+    private IntPair intPair;
+    private LongPair longPair;
+    private ObjDoublePair<String> objDoublePair;
+    private Pair<Integer, Integer> apacheIntPair;
+
+    @Setup
+    public void setup() {
+        intPair = IntPair.of(100000, 200000);
+        longPair = LongPair.of(100000, 200000);
+        objDoublePair = ObjDoublePair.of("name", 0.5);
+        apacheIntPair = ImmutablePair.of(100000, 200000);
+    }
+
+    @Benchmark
+    public Pair<Integer, Integer> intPairBoxed() {
+        return intPair.boxed();
+    }
+
+    @Benchmark
+    public Pair<Long, Long> longPairBoxed() {
+        return longPair.boxed();
+    }
+
+    @Benchmark
+    public Pair<String, Double> objDoublePairBoxed() {
+        return objDoublePair.boxed();
+    }
+
+    /**
+     * The baseline: an Apache pair passed through as-is.
+     */
+    @Benchmark
+    public Pair<Integer, Integer> apacheIntPair() {
+        return apacheIntPair;
+    }
+}
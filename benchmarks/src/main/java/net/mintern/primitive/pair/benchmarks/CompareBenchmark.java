@@ -0,0 +1,108 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.mintern.primitive.pair.IntPair;
+import net.mintern.primitive.pair.ObjDoublePair;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code compareTo} over arrays of pairs whose left elements often tie, so that both
+ * elements are usually compared. Each operation compares {@link #SIZE} adjacent pairs.
+ *
+ * @author Brandon Mintern
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompareBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private IntPair[] intPairs;
+    private Pair<Integer, Integer>[] apacheIntPairs;
+    private ObjDoublePair<String>[] objDoublePairs;
+    private Pair<String, Double>[] apacheObjDoublePairs;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(42);
+        intPairs = new IntPair[SIZE];
+        apacheIntPairs = new Pair[SIZE];
+        objDoublePairs = new ObjDoublePair[SIZE];
+        apacheObjDoublePairs = new Pair[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            int left = random.nextInt(4) * 100000;
+            int right = random.nextInt();
+            String name = "name" + random.nextInt(4);
+            double score = random.nextDouble();
+            intPairs[i] = IntPair.of(left, right);
+            apacheIntPairs[i] = ImmutablePair.of(left, right);
+            objDoublePairs[i] = ObjDoublePair.of(name, score);
+            apacheObjDoublePairs[i] = ImmutablePair.of(name, score);
+        }
+    }
+
+    @Benchmark
+    public int intPair() {
+        int sum = 0;
+        for (int i = 1; i < SIZE; i++) {
+            sum += intPairs[i - 1].compareTo(intPairs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int apacheIntPair() {
+        int sum = 0;
+        for (int i = 1; i < SIZE; i++) {
+            sum += apacheIntPairs[i - 1].compareTo(apacheIntPairs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int objDoublePair() {
+        int sum = 0;
+        for (int i = 1; i < SIZE; i++) {
+            sum += objDoublePairs[i - 1].compareTo(objDoublePairs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int apacheObjDoublePair() {
+        int sum = 0;
+        for (int i = 1; i < SIZE; i++) {
+            sum += apacheObjDoublePairs[i - 1].compareTo(apacheObjDoublePairs[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.mintern.primitive.pair.DoubleLongPair;
+import net.mintern.primitive.pair.IntPair;
+import net.mintern.primitive.pair.LongPair;
+import net.mintern.primitive.pair.ObjIntPair;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code of()} for primitive pairs against {@link ImmutablePair#of(Object, Object)}. The
+ * small value falls inside the JDK's boxing caches and the large one does not.
+ *
+ * @author Brandon Mintern
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConstructionBenchmark {
+
+    @Param({"7", "100000"})
+    public int value;
+
+    private String name = "name";
+
+    @Benchmark
+    public IntPair intPair() {
+        return IntPair.of(value, value + 1);
+    }
+
+    @Benchmark
+    public Pair<Integer, Integer> apacheIntPair() {
+        return ImmutablePair.of(value, value + 1);
+    }
+
+    @Benchmark
+    public LongPair longPair() {
+        return LongPair.of(value, value + 1L);
+    }
+
+    @Benchmark
+    public Pair<Long, Long> apacheLongPair() {
+        return ImmutablePair.of((long) value, value + 1L);
+    }
+
+    @Benchmark
+    public DoubleLongPair doubleLongPair() {
+        return DoubleLongPair.of(value, value + 1L);
+    }
+
+    @Benchmark
+    public Pair<Double, Long> apacheDoubleLongPair() {
+        return ImmutablePair.of((double) value, value + 1L);
+    }
+
+    @Benchmark
+    public ObjIntPair<String> objIntPair() {
+        return ObjIntPair.of(name, value);
+    }
+
+    @Benchmark
+    public Pair<String, Integer> apacheObjIntPair() {
+        return ImmutablePair.of(name, value);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.benchmarks;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.mintern.primitive.pair.IntPair;
+import net.mintern.primitive.pair.LongPair;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code hashCode} and {@code equals} as exercised by {@link HashMap} and {@link HashSet}
+ * with the keys of a square grid, a common shape for pair keys. Each lookup creates its key, as a
+ * caller typically would. Each operation covers every key of the grid.
+ *
+ * @author Brandon Mintern
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashBenchmark {
+
+    /** The side of the grid; the number of keys is its square. */
+    @Param({"32", "256"})
+    public int side;
+
+    private Map<IntPair, Integer> intPairMap;
+    private Map<Pair<Integer, Integer>, Integer> apacheIntPairMap;
+    private Set<LongPair> longPairSet;
+    private Set<Pair<Long, Long>> apacheLongPairSet;
+
+    @Setup
+    public void setup() {
+        intPairMap = new HashMap<>();
+        apacheIntPairMap = new HashMap<>();
+        longPairSet = new HashSet<>();
+        apacheLongPairSet = new HashSet<>();
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                intPairMap.put(IntPair.of(x, y), x);
+                apacheIntPairMap.put(ImmutablePair.of(x, y), x);
+                longPairSet.add(LongPair.of(x, y));
+                apacheLongPairSet.add(ImmutablePair.of((long) x, (long) y));
+            }
+        }
+    }
+
+    @Benchmark
+    public int intPairMapGet() {
+        int sum = 0;
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                sum += intPairMap.get(IntPair.of(x, y));
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int apacheIntPairMapGet() {
+        int sum = 0;
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                sum += apacheIntPairMap.get(ImmutablePair.of(x, y));
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<IntPair, Integer> intPairMapPut() {
+        Map<IntPair, Integer> map = new HashMap<>();
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                map.put(IntPair.of(x, y), y);
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Pair<Integer, Integer>, Integer> apacheIntPairMapPut() {
+        Map<Pair<Integer, Integer>, Integer> map = new HashMap<>();
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                map.put(ImmutablePair.of(x, y), y);
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int longPairSetContains() {
+        int found = 0;
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                if (longPairSet.contains(LongPair.of(x, y))) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int apacheLongPairSetContains() {
+        int found = 0;
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                if (apacheLongPairSet.contains(ImmutablePair.of((long) x, (long) y))) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import net.mintern.primitive.pair.PairSorts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PairSorts#parallelSort} against the sequential {@link PairSorts#sort} for
+ * {@code long} and {@code int} columns. The sizes straddle the sequential fallback threshold of
+ * 8192 elements, and varying {@code threads} gives the scaling curve, for example:
+ * <pre>
+ * java -jar target/benchmarks.jar ParallelSortBenchmark -p threads=1,2,4,8,16,32
+ * </pre>
+ * Each operation copies the unsorted input and sorts the copy.
+ *
+ * @author Brandon Mintern
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ParallelSortBenchmark {
+
+    @Param({"4096", "16384", "1000000", "10000000"})
+    public int size;
+
+    /** The parallelism of the pool used by the parallel sorts. */
+    @Param({"1", "4"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private long[] longLefts;
+    private long[] longRights;
+    private int[] intLefts;
+    private int[] intRights;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threads);
+        Random random = new Random(42);
+        longLefts = new long[size];
+        longRights = new long[size];
+        intLefts = new int[size];
+        intRights = new int[size];
+        for (int i = 0; i < size; i++) {
+            longLefts[i] = random.nextLong();
+            longRights[i] = random.nextLong();
+            intLefts[i] = random.nextInt(size);
+            intRights[i] = random.nextInt();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long[] longPairSort() {
+        long[] l = longLefts.clone();
+        long[] r = longRights.clone();
+        PairSorts.sort(l, r);
+        return l;
+    }
+
+    @Benchmark
+    public long[] longPairParallelSort() {
+        long[] l = longLefts.clone();
+        long[] r = longRights.clone();
+        PairSorts.parallelSort(pool, l, r, 0, size);
+        return l;
+    }
+
+    @Benchmark
+    public int[] intPairSort() {
+        int[] l = intLefts.clone();
+        int[] r = intRights.clone();
+        PairSorts.sort(l, r);
+        return l;
+    }
+
+    @Benchmark
+    public int[] intPairParallelSort() {
+        int[] l = intLefts.clone();
+        int[] r = intRights.clone();
+        PairSorts.parallelSort(pool, l, r, 0, size);
+        return l;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.mintern.primitive.pair.LongPair;
+import net.mintern.primitive.pair.LongPairArrayList;
+import net.mintern.primitive.pair.PairSorts;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting random pairs by their natural ordering, as lists of pair objects and as
+ * parallel primitive columns sorted by {@link PairSorts}. Each operation copies the unsorted input
+ * and sorts the copy.
+ *
+ * @author Brandon Mintern
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<LongPair> longPairs;
+    private List<Pair<Long, Long>> apacheLongPairs;
+    private long[] lefts;
+    private long[] rights;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        longPairs = new ArrayList<>(size);
+        apacheLongPairs = new ArrayList<>(size);
+        lefts = new long[size];
+        rights = new long[size];
+        for (int i = 0; i < size; i++) {
+            long left = random.nextInt(size);
+            long right = random.nextLong();
+            longPairs.add(LongPair.of(left, right));
+            apacheLongPairs.add(ImmutablePair.of(left, right));
+            lefts[i] = left;
+            rights[i] = right;
+        }
+    }
+
+    @Benchmark
+    public List<LongPair> longPairList() {
+        List<LongPair> copy = new ArrayList<>(longPairs);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Pair<Long, Long>> apacheLongPairList() {
+        List<Pair<Long, Long>> copy = new ArrayList<>(apacheLongPairs);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public long[] longPairColumns() {
+        long[] l = lefts.clone();
+        long[] r = rights.clone();
+        PairSorts.sort(l, r);
+        return l;
+    }
+
+    @Benchmark
+    public long[] longPairColumnsRadix() {
+        long[] l = lefts.clone();
+        long[] r = rights.clone();
+        PairSorts.radixSort(l, r);
+        return l;
+    }
+
+    @Benchmark
+    public LongPairArrayList longPairArrayList() {
+        LongPairArrayList list = new LongPairArrayList(longPairs);
+        list.sort();
+        return list;
+    }
+}
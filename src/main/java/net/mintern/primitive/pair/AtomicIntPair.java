@@ -0,0 +1,176 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import net.mintern.primitive.pair.function.IntPairUnaryOperator;
+
+/**
+ * A pair of {@code int} values that is updated atomically. Both elements are packed into a single
+ * {@code volatile long}, so every read and update of the pair is a single lock-free operation on
+ * one word, and a reader can never observe the left element of one update together with the right
+ * element of another.
+ * <p>
+ * This is not an {@link IntPair}, since its value changes over time; use {@link #get()} to obtain
+ * an immutable snapshot.
+ * <p>
+ * #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public class AtomicIntPair implements Serializable {
+
+    private static final long serialVersionUID = 1;
+
+    private static final AtomicLongFieldUpdater<AtomicIntPair> UPDATER =
+            AtomicLongFieldUpdater.newUpdater(AtomicIntPair.class, "value");
+
+    private volatile long value;
+
+    /**
+     * Creates a new atomic pair with the value {@code (0, 0)}.
+     */
+    public AtomicIntPair() {}
+
+    /**
+     * Creates a new atomic pair with the given initial value.
+     *
+     * @param left  the initial left value
+     * @param right  the initial right value
+     */
+    public AtomicIntPair(int left, int right) {
+        value = PackedPairs.pack(left, right);
+    }
+
+    /**
+     * Gets the current left value.
+     *
+     * @return the left value
+     */
+    public int getLeft() {
+        return PackedPairs.unpackLeft(value);
+    }
+
+    /**
+     * Gets the current right value.
+     *
+     * @return the right value
+     */
+    public int getRight() {
+        return PackedPairs.unpackRight(value);
+    }
+
+    /**
+     * Obtains a snapshot of the current value. Both elements come from the same atomic read.
+     *
+     * @return the current value, not null
+     */
+    public ImmutableIntPair get() {
+        return PackedPairs.unpack(value);
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param left  the new left value
+     * @param right  the new right value
+     */
+    public void set(int left, int right) {
+        value = PackedPairs.pack(left, right);
+    }
+
+    /**
+     * Atomically sets the value and returns the old value.
+     *
+     * @param left  the new left value
+     * @param right  the new right value
+     * @return the previous value, not null
+     */
+    public ImmutableIntPair getAndSet(int left, int right) {
+        long next = PackedPairs.pack(left, right);
+        long prev;
+        do {
+            prev = value;
+        } while (!UPDATER.compareAndSet(this, prev, next));
+        return PackedPairs.unpack(prev);
+    }
+
+    /**
+     * Atomically sets the value to {@code (newLeft, newRight)} if the current value is
+     * {@code (expectLeft, expectRight)}.
+     *
+     * @param expectLeft  the expected left value
+     * @param expectRight  the expected right value
+     * @param newLeft  the new left value
+     * @param newRight  the new right value
+     * @return true if successful, false if the current value was not the expected value
+     */
+    public boolean compareAndSet(int expectLeft, int expectRight, int newLeft, int newRight) {
+        return UPDATER.compareAndSet(this, PackedPairs.pack(expectLeft, expectRight),
+                PackedPairs.pack(newLeft, newRight));
+    }
+
+    /**
+     * Atomically updates the value with the result of applying the given operator to it, and
+     * returns the previous value. The operator may be applied more than once if other threads
+     * update the pair concurrently, so it should be free of side effects.
+     *
+     * @param operator  the operator, not null
+     * @return the previous value, not null
+     */
+    public ImmutableIntPair getAndUpdate(IntPairUnaryOperator operator) {
+        long prev;
+        long next;
+        do {
+            prev = value;
+            next = apply(operator, prev);
+        } while (!UPDATER.compareAndSet(this, prev, next));
+        return PackedPairs.unpack(prev);
+    }
+
+    /**
+     * Atomically updates the value with the result of applying the given operator to it, and
+     * returns the new value. The operator may be applied more than once if other threads update
+     * the pair concurrently, so it should be free of side effects.
+     *
+     * @param operator  the operator, not null
+     * @return the updated value, not null
+     */
+    public ImmutableIntPair updateAndGet(IntPairUnaryOperator operator) {
+        long prev;
+        long next;
+        do {
+            prev = value;
+            next = apply(operator, prev);
+        } while (!UPDATER.compareAndSet(this, prev, next));
+        return PackedPairs.unpack(next);
+    }
+
+    /**
+     * Returns a String representation of the current value using the format
+     * {@code ($left,$right)}.
+     *
+     * @return a string describing the current value, not null
+     */
+    @Override
+    public String toString() {
+        return get().toString();
+    }
+
+    private static long apply(IntPairUnaryOperator operator, long packed) {
+        IntPair result =
+                operator.apply(PackedPairs.unpackLeft(packed), PackedPairs.unpackRight(packed));
+        return PackedPairs.pack(result.getLeft(), result.getRight());
+    }
+}
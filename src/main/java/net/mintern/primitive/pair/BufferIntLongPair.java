@@ -0,0 +1,211 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.apache.commons.lang3.tuple.MutablePair;
+
+/**
+ * A flyweight {@link IntLongPair} that reads its elements directly from a {@link ByteBuffer}, where
+ * they are stored as 12 bytes at some offset: the left element followed by the right element.
+ * Moving the pair to another offset with {@link #moveTo(int)}, or to another buffer with
+ * {@link #moveTo(ByteBuffer, int)}, lets a single instance walk any number of packed records
+ * without allocating or copying:
+ * <pre>
+ * BufferIntLongPair pair = new BufferIntLongPair(frame, ByteOrder.LITTLE_ENDIAN);
+ * for (int offset = 0; offset &lt;= frame.limit() - BufferIntLongPair.BYTES;
+ *         offset += BufferIntLongPair.BYTES) {
+ *     process(pair.moveTo(offset));
+ * }
+ * </pre>
+ * The elements are read with absolute gets, so the buffer's position and limit are never
+ * changed. They are decoded in the byte order given to the constructor, whatever the buffer's own
+ * order is. The setters write through to the buffer.
+ * <p>
+ * Like other mutable pairs, this pair's {@link #hashCode()} changes along with its elements, so it
+ * should not be used as a key in a hash-based collection. It is serialized as an
+ * {@link ImmutableIntLongPair} copy of its current elements.
+ * <p>
+ * Not #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public final class BufferIntLongPair extends IntLongPair {
+
+    private static final long serialVersionUID = 1;
+
+    /** The number of bytes occupied by each pair. */
+    public static final int BYTES = 12;
+
+    private final ByteOrder order;
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Creates a pair that reads the first record of {@code buffer}, in the buffer's current byte
+     * order.
+     *
+     * @param buffer  the buffer to read, not null
+     * @throws IndexOutOfBoundsException if the buffer's limit is less than {@link #BYTES}
+     */
+    public BufferIntLongPair(ByteBuffer buffer) {
+        this(buffer, buffer.order());
+    }
+
+    /**
+     * Creates a pair that reads the first record of {@code buffer} in the given byte order.
+     *
+     * @param buffer  the buffer to read, not null
+     * @param order  the byte order of the records, not null
+     * @throws IndexOutOfBoundsException if the buffer's limit is less than {@link #BYTES}
+     */
+    public BufferIntLongPair(ByteBuffer buffer, ByteOrder order) {
+        if (order == null) {
+            throw new NullPointerException("order");
+        }
+        this.order = order;
+        moveTo(buffer, 0);
+    }
+
+    /**
+     * Gets the buffer that this pair reads.
+     *
+     * @return the buffer, not null
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Gets the byte order in which this pair decodes its elements.
+     *
+     * @return the byte order, not null
+     */
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Gets the offset in the buffer of the current record.
+     *
+     * @return the offset of the left element, in bytes
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Moves this pair to the record at another offset in the same buffer.
+     *
+     * @param offset  the offset of the left element, in bytes
+     * @return this pair
+     * @throws IndexOutOfBoundsException if the record does not lie within the buffer's limit
+     */
+    public BufferIntLongPair moveTo(int offset) {
+        if (offset < 0 || offset > buffer.limit() - BYTES) {
+            throw new IndexOutOfBoundsException(
+                    "Offset: " + offset + ", Limit: " + buffer.limit());
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Moves this pair to the record at an offset in another buffer.
+     *
+     * @param buffer  the buffer to read, not null
+     * @param offset  the offset of the left element, in bytes
+     * @return this pair
+     * @throws IndexOutOfBoundsException if the record does not lie within the buffer's limit
+     */
+    public BufferIntLongPair moveTo(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset > buffer.limit() - BYTES) {
+            throw new IndexOutOfBoundsException(
+                    "Offset: " + offset + ", Limit: " + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    @Override
+    public int getLeft() {
+        return swap() ? Integer.reverseBytes(buffer.getInt(offset)) : buffer.getInt(offset);
+    }
+
+    /**
+     * Sets the left element of the current record.
+     *
+     * @param left  the new value of the left element
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     */
+    public void setLeft(int left) {
+        buffer.putInt(offset, swap() ? Integer.reverseBytes(left) : left);
+    }
+
+    @Override
+    public long getRight() {
+        return swap() ? Long.reverseBytes(buffer.getLong(offset + 4)) : buffer.getLong(offset + 4);
+    }
+
+    /**
+     * Sets the right element of the current record.
+     *
+     * @param right  the new value of the right element
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     */
+    public void setRight(long right) {
+        buffer.putLong(offset + 4, swap() ? Long.reverseBytes(right) : right);
+    }
+
+    /**
+     * Replaces the right element, as {@link java.util.Map.Entry#setValue} requires.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     */
+    @Override
+    public Long setValue(Long value) {
+        long old = getRight();
+        setRight(value);
+        return old;
+    }
+
+    /**
+     * Sets both elements of the current record.
+     *
+     * @param left  the new value of the left element
+     * @param right  the new value of the right element
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     */
+    public void set(int left, long right) {
+        setLeft(left);
+        setRight(right);
+    }
+
+    @Override
+    public MutablePair<Integer, Long> boxed() {
+        return new MutablePair<>(getLeft(), getRight());
+    }
+
+    private boolean swap() {
+        return buffer.order() != order;
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return ImmutableIntLongPair.of(getLeft(), getRight());
+    }
+}
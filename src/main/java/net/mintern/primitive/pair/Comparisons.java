@@ -0,0 +1,53 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import org.apache.commons.lang3.builder.CompareToBuilder;
+
+/**
+ * Comparison helpers shared by the pair classes.
+ *
+ * @author Brandon Mintern
+ */
+final class Comparisons {
+
+    private Comparisons() {}
+
+    /**
+     * Compares two objects the same way as {@link CompareToBuilder#append(Object, Object)}, but
+     * without allocating a builder for the common case of {@link Comparable} objects. A null
+     * object is less than any other, and arrays are compared element by element.
+     *
+     * @param lhs  the first object, may be null
+     * @param rhs  the second object, may be null
+     * @return negative if {@code lhs} is less, zero if equal, positive if greater
+     * @throws ClassCastException if {@code lhs} is not {@link Comparable} or the objects are not
+     *         mutually comparable
+     */
+    @SuppressWarnings("unchecked")
+    static int compareObjects(Object lhs, Object rhs) {
+        if (lhs == rhs) {
+            return 0;
+        }
+        if (lhs == null) {
+            return -1;
+        }
+        if (rhs == null) {
+            return 1;
+        }
+        if (lhs.getClass().isArray()) {
+            return new CompareToBuilder().append(lhs, rhs).toComparison();
+        }
+        return ((Comparable<Object>) lhs).compareTo(rhs);
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An append-only sequence of {@link IntPair}s that is stored compressed in memory. It is designed
+ * for pairs that are sorted, or nearly sorted, by their left elements, such as
+ * {@code (timestamp, id)} records.
+ * <p>
+ * Pairs are encoded in blocks of {@value #BLOCK_SIZE}. Within a block, each left element is stored
+ * as the difference from the previous left element; the first left element of a block is stored
+ * as is. The left differences and the right elements are then zig-zag encoded, so that values of
+ * small magnitude are small whatever their sign, and stored as varints of 1 to 5 bytes. Sorted
+ * left elements that are close together therefore take only a byte or two each.
+ * <p>
+ * Iterating with a {@link #cursor()} decodes each pair in turn without allocating. Random access
+ * with {@link #getLeft(int)} and the like is also supported: it starts decoding at the beginning of
+ * the pair's block, so it costs up to {@value #BLOCK_SIZE} decodes. The encoded form can be
+ * written to and read from a stream with {@link #writeTo(DataOutput)} and
+ * {@link #readFrom(DataInput)}.
+ * <p>
+ * Not #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public class CompressedIntPairSequence {
+
+    /** The number of pairs in each independently decodable block. */
+    public static final int BLOCK_SIZE = 128;
+
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private byte[] data;
+    private int length;
+    private int[] blockOffsets;
+    private int size;
+    private int lastLeft;
+
+    /**
+     * Creates an empty sequence.
+     */
+    public CompressedIntPairSequence() {
+        data = new byte[DEFAULT_CAPACITY];
+        blockOffsets = new int[1];
+    }
+
+    private CompressedIntPairSequence(byte[] data, int[] blockOffsets, int size) {
+        this.data = data;
+        this.length = data.length;
+        this.blockOffsets = blockOffsets;
+        this.size = size;
+        if (size > 0) {
+            lastLeft = getLeft(size - 1);
+        }
+    }
+
+    /**
+     * Gets the number of pairs in this sequence.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether this sequence has no pairs.
+     *
+     * @return true if the size is zero
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of bytes used by the encoded pairs, not counting the unused capacity and the
+     * index of blocks.
+     *
+     * @return the encoded size in bytes
+     */
+    public int encodedBytes() {
+        return length;
+    }
+
+    /**
+     * Appends a pair to the end of this sequence.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     */
+    public void add(int left, int right) {
+        if (size == MAX_CAPACITY) {
+            throw new OutOfMemoryError("Too many pairs");
+        }
+        if (length > data.length - 2 * Varints.MAX_INT_BYTES) {
+            grow(length + 2 * Varints.MAX_INT_BYTES);
+        }
+        int s = size;
+        int previous;
+        if ((s & BLOCK_MASK) == 0) {
+            int block = s >>> BLOCK_SHIFT;
+            if (block == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, block + (block >> 1) + 1);
+            }
+            blockOffsets[block] = length;
+            previous = 0;
+        } else {
+            previous = lastLeft;
+        }
+        int pos = Varints.put(data, length, Varints.zigZag(left - previous));
+        length = Varints.put(data, pos, Varints.zigZag(right));
+        lastLeft = left;
+        size = s + 1;
+    }
+
+    /**
+     * Appends the pairs of a list to the end of this sequence.
+     *
+     * @param pairs  the pairs to append, not null
+     */
+    public void addAll(IntPairArrayList pairs) {
+        for (int i = 0, n = pairs.size(); i < n; i++) {
+            add(pairs.getLeft(i), pairs.getRight(i));
+        }
+    }
+
+    /**
+     * Gets the left element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the left element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getLeft(int index) {
+        return cursorAt(index).left;
+    }
+
+    /**
+     * Gets the right element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getRight(int index) {
+        return cursorAt(index).right;
+    }
+
+    /**
+     * Copies the pair at the given position into {@code into}.
+     *
+     * @param index  the index of the pair
+     * @param into  the pair to fill, not null
+     * @return {@code into}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public MutableIntPair get(int index, MutableIntPair into) {
+        return cursorAt(index).get(into);
+    }
+
+    /**
+     * Creates a cursor that is positioned before the first pair.
+     *
+     * @return a new cursor, not null
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Creates a cursor that is positioned before the pair at the given index, so that the first
+     * call to {@link Cursor#next()} moves to that pair. Only the pairs that precede it in its block
+     * are decoded.
+     *
+     * @param index  the index of the first pair to visit, which may be {@link #size()}
+     * @return a new cursor, not null
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Cursor cursor(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Cursor cursor = new Cursor();
+        if (index < size) {
+            cursor.index = index & ~BLOCK_MASK;
+            cursor.pos = blockOffsets[index >>> BLOCK_SHIFT];
+            for (int skip = index & BLOCK_MASK; skip > 0; skip--) {
+                cursor.next();
+            }
+        } else {
+            cursor.index = size;
+            cursor.pos = length;
+            if ((size & BLOCK_MASK) != 0) {
+                // the next appended pair is stored as a delta from the last one
+                cursor.left = lastLeft;
+            }
+        }
+        cursor.current = false;
+        return cursor;
+    }
+
+    /**
+     * Decodes all of the pairs into a new list.
+     *
+     * @return a list of the pairs in this sequence, not null
+     */
+    public IntPairArrayList toArrayList() {
+        IntPairArrayList pairs = new IntPairArrayList(size);
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            pairs.add(cursor.left, cursor.right);
+        }
+        return pairs;
+    }
+
+    /**
+     * Reduces the memory used by this sequence to what its pairs require.
+     */
+    public void trimToSize() {
+        data = Arrays.copyOf(data, length);
+        blockOffsets = Arrays.copyOf(blockOffsets, (size + BLOCK_MASK) >>> BLOCK_SHIFT);
+    }
+
+    /**
+     * Writes the encoded pairs: the number of pairs and the number of bytes, each as an
+     * {@code int}, followed by the bytes.
+     *
+     * @param out  the output to write to, not null
+     * @throws IOException if the output cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(length);
+        out.write(data, 0, length);
+    }
+
+    /**
+     * Reads a sequence that was written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in  the input to read from, not null
+     * @return a new sequence, not null
+     * @throws IOException if the input cannot be read or does not hold a valid sequence
+     */
+    public static CompressedIntPairSequence readFrom(DataInput in) throws IOException {
+        int size = in.readInt();
+        int length = in.readInt();
+        if (size < 0 || length < 0) {
+            throw new IOException("Corrupt sequence header: " + size + ", " + length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        int[] blockOffsets = new int[(size + BLOCK_MASK) >>> BLOCK_SHIFT];
+        long varints = 0;
+        int start = 0;
+        for (int pos = 0; pos < length; pos++) {
+            if (Varints.isLast(data[pos])) {
+                if ((varints & (2 * BLOCK_SIZE - 1)) == 0 && varints < 2L * size) {
+                    blockOffsets[(int) (varints >>> (BLOCK_SHIFT + 1))] = start;
+                }
+                varints++;
+                start = pos + 1;
+            }
+        }
+        if (varints != 2L * size || start != length) {
+            throw new IOException("Corrupt sequence: expected " + size + " pairs");
+        }
+        return new CompressedIntPairSequence(data, blockOffsets, size);
+    }
+
+    /**
+     * Returns a String representation of this sequence, in the same format as a {@code List}.
+     *
+     * @return a string describing this sequence, not null
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append('(').append(cursor.left).append(',').append(cursor.right).append(')');
+        }
+        return sb.append(']').toString();
+    }
+
+    private Cursor cursorAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Cursor cursor = cursor(index);
+        cursor.next();
+        return cursor;
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required capacity is too large: " + minCapacity);
+        }
+        int oldCapacity = data.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) {
+            newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        }
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    /**
+     * Decodes the pairs of the enclosing sequence in order. A cursor created before pairs are
+     * appended also visits the appended pairs.
+     * <p>
+     * Not #ThreadSafe#
+     */
+    public final class Cursor {
+
+        /** The index of the pair that {@link #next()} decodes. */
+        private int index;
+        /** The position in {@code data} of the pair that {@link #next()} decodes. */
+        private int pos;
+        private boolean current;
+        private int left;
+        private int right;
+
+        private Cursor() {}
+
+        /**
+         * Advances to the next pair.
+         *
+         * @return true if the cursor is now positioned at a pair, false if none remain
+         */
+        public boolean next() {
+            if (index >= size) {
+                current = false;
+                return false;
+            }
+            if ((index & BLOCK_MASK) == 0) {
+                left = 0;
+            }
+            left += Varints.unZigZag(read());
+            right = Varints.unZigZag(read());
+            index++;
+            current = true;
+            return true;
+        }
+
+        /**
+         * Advances to the next pair and copies it into {@code into}.
+         *
+         * @param into  the pair to fill, not null
+         * @return true if a pair was copied, false if none remain
+         */
+        public boolean next(MutableIntPair into) {
+            if (!next()) {
+                return false;
+            }
+            into.left = left;
+            into.right = right;
+            return true;
+        }
+
+        /**
+         * Gets the index of the current pair.
+         *
+         * @return the index
+         * @throws NoSuchElementException if the cursor is not positioned at a pair
+         */
+        public int index() {
+            checkCurrent();
+            return index - 1;
+        }
+
+        /**
+         * Gets the left element of the current pair.
+         *
+         * @return the left element
+         * @throws NoSuchElementException if the cursor is not positioned at a pair
+         */
+        public int getLeft() {
+            checkCurrent();
+            return left;
+        }
+
+        /**
+         * Gets the right element of the current pair.
+         *
+         * @return the right element
+         * @throws NoSuchElementException if the cursor is not positioned at a pair
+         */
+        public int getRight() {
+            checkCurrent();
+            return right;
+        }
+
+        /**
+         * Copies the current pair into {@code into}.
+         *
+         * @param into  the pair to fill, not null
+         * @return {@code into}
+         * @throws NoSuchElementException if the cursor is not positioned at a pair
+         */
+        public MutableIntPair get(MutableIntPair into) {
+            checkCurrent();
+            into.left = left;
+            into.right = right;
+            return into;
+        }
+
+        private void checkCurrent() {
+            if (!current) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        private int read() {
+            byte[] d = data;
+            int p = pos;
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = d[p++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (!Varints.isLast(b));
+            pos = p;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import net.mintern.primitive.pair.function.IntLongPairUnaryOperator;
+
+/**
+ * A holder for a pair of {@code int} and {@code long} values that can be read and written
+ * concurrently. The elements are too wide to be packed into a single word, so this is a sequence
+ * lock (seqlock): a writer makes a version counter odd, stores both elements, and makes the counter
+ * even again, while a reader retries until it sees the same even counter before and after reading
+ * both elements. Readers therefore never block a writer or each other, and always observe a
+ * consistent pair, which suits values that are read far more often than they are written.
+ * <p>
+ * Writers exclude one another by atomically claiming the odd counter, so any number of threads may
+ * write. A reader spins while a write is in progress, so writes should be brief.
+ * <p>
+ * This is not an {@link IntLongPair}, since its value changes over time; use {@link #get()} or
+ * {@link #get(MutableIntLongPair)} to obtain a snapshot.
+ * <p>
+ * #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public class ConcurrentIntLongPair {
+
+    private static final AtomicLongFieldUpdater<ConcurrentIntLongPair> SEQ =
+            AtomicLongFieldUpdater.newUpdater(ConcurrentIntLongPair.class, "seq");
+
+    /** Even when the elements are stable, odd while a write is in progress. */
+    private volatile long seq;
+    private volatile int left;
+    private volatile long right;
+
+    /**
+     * Creates a new holder with the value {@code (0, 0L)}.
+     */
+    public ConcurrentIntLongPair() {}
+
+    /**
+     * Creates a new holder with the given initial value.
+     *
+     * @param left  the initial left value
+     * @param right  the initial right value
+     */
+    public ConcurrentIntLongPair(int left, long right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Gets the current left value.
+     *
+     * @return the left value
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * Gets the current right value.
+     *
+     * @return the right value
+     */
+    public long getRight() {
+        return right;
+    }
+
+    /**
+     * Obtains a consistent snapshot of the current value without locking.
+     *
+     * @return the current value, not null
+     */
+    public ImmutableIntLongPair get() {
+        for (;;) {
+            long s = seq;
+            if ((s & 1) == 0) {
+                int l = left;
+                long r = right;
+                if (seq == s) {
+                    return ImmutableIntLongPair.of(l, r);
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Copies a consistent snapshot of the current value into {@code into} without locking or
+     * allocating.
+     *
+     * @param into  the pair to fill, not null
+     * @return {@code into}
+     */
+    public MutableIntLongPair get(MutableIntLongPair into) {
+        for (;;) {
+            long s = seq;
+            if ((s & 1) == 0) {
+                int l = left;
+                long r = right;
+                if (seq == s) {
+                    into.left = l;
+                    into.right = r;
+                    return into;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param left  the new left value
+     * @param right  the new right value
+     */
+    public void set(int left, long right) {
+        long s = lock();
+        this.left = left;
+        this.right = right;
+        seq = s + 1;
+    }
+
+    /**
+     * Atomically sets the value and returns the old value.
+     *
+     * @param left  the new left value
+     * @param right  the new right value
+     * @return the previous value, not null
+     */
+    public ImmutableIntLongPair getAndSet(int left, long right) {
+        long s = lock();
+        ImmutableIntLongPair prev = ImmutableIntLongPair.of(this.left, this.right);
+        this.left = left;
+        this.right = right;
+        seq = s + 1;
+        return prev;
+    }
+
+    /**
+     * Atomically sets the value to {@code (newLeft, newRight)} if the current value is
+     * {@code (expectLeft, expectRight)}.
+     *
+     * @param expectLeft  the expected left value
+     * @param expectRight  the expected right value
+     * @param newLeft  the new left value
+     * @param newRight  the new right value
+     * @return true if successful, false if the current value was not the expected value
+     */
+    public boolean compareAndSet(int expectLeft, long expectRight,
+            int newLeft, long newRight) {
+        long s = lock();
+        boolean matches = left == expectLeft
+                && right == expectRight;
+        if (matches) {
+            left = newLeft;
+            right = newRight;
+        }
+        seq = s + 1;
+        return matches;
+    }
+
+    /**
+     * Atomically updates the value with the result of applying the given operator to it, and
+     * returns the previous value. The operator is applied exactly once, while other writers are
+     * excluded and readers wait, so it should be quick.
+     *
+     * @param operator  the operator, not null
+     * @return the previous value, not null
+     */
+    public ImmutableIntLongPair getAndUpdate(IntLongPairUnaryOperator operator) {
+        long s = lock();
+        try {
+            int l = left;
+            long r = right;
+            IntLongPair next = operator.apply(l, r);
+            left = next.getLeft();
+            right = next.getRight();
+            return ImmutableIntLongPair.of(l, r);
+        } finally {
+            seq = s + 1;
+        }
+    }
+
+    /**
+     * Atomically updates the value with the result of applying the given operator to it, and
+     * returns the new value. The operator is applied exactly once, while other writers are
+     * excluded and readers wait, so it should be quick.
+     *
+     * @param operator  the operator, not null
+     * @return the updated value, not null
+     */
+    public ImmutableIntLongPair updateAndGet(IntLongPairUnaryOperator operator) {
+        long s = lock();
+        try {
+            IntLongPair next = operator.apply(left, right);
+            int l = next.getLeft();
+            long r = next.getRight();
+            left = l;
+            right = r;
+            return ImmutableIntLongPair.of(l, r);
+        } finally {
+            seq = s + 1;
+        }
+    }
+
+    /**
+     * Returns a String representation of the current value using the format
+     * {@code ($left,$right)}.
+     *
+     * @return a string describing the current value, not null
+     */
+    @Override
+    public String toString() {
+        return get().toString();
+    }
+
+    /**
+     * Waits for any other writer to finish and makes the sequence odd.
+     *
+     * @return the odd sequence number, which the caller must increment when done
+     */
+    private long lock() {
+        for (;;) {
+            long s = seq;
+            if ((s & 1) == 0 && SEQ.compareAndSet(this, s, s + 1)) {
+                return s + 1;
+            }
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory behind direct (and mapped) {@link ByteBuffer}s without waiting for
+ * them to be garbage collected. The JDK has no public API for this, so it uses
+ * {@code sun.misc.Unsafe.invokeCleaner} on Java 9 and later and the buffer's {@code Cleaner} on
+ * earlier versions. If neither is accessible, freeing is left to the garbage collector.
+ * <p>
+ * A freed buffer must never be accessed again: doing so reads or writes memory that no longer
+ * belongs to it and may crash the JVM. Callers must ensure that no reference to the buffer, or to
+ * any view of it, escapes.
+ *
+ * @author Brandon Mintern
+ */
+final class DirectBuffers {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectBuffers() {}
+
+    /**
+     * Frees the memory of a buffer that was returned by {@link ByteBuffer#allocateDirect} or
+     * {@link java.nio.channels.FileChannel#map}, if possible. Heap buffers are ignored.
+     *
+     * @param buffer  the buffer to free, not null; it must not be a slice or duplicate
+     */
+    static void free(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Leave it to the garbage collector.
+        }
+    }
+}
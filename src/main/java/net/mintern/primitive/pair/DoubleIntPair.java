@@ -16,6 +16,11 @@
  */
 package net.mintern.primitive.pair;
 
+import java.util.Map;
+import net.mintern.primitive.pair.function.DoubleIntConsumer;
+import net.mintern.primitive.pair.function.DoubleIntFunction;
+import net.mintern.primitive.pair.function.DoubleIntPredicate;
+
 /**
  * A pair modeled after {@link org.apache.commons.lang3.tuple.Pair} that consists of a
  * {@code double} and an {@code int} element that allows users to avoid {@code Double} and
@@ -54,6 +59,73 @@ public abstract class DoubleIntPair implements PrimitivePair<Double, Integer>, C
      */
     public abstract int getRight();
 
+    /**
+     * Gets the left element, boxed as {@code Double}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getLeft()} to avoid that.
+     *
+     * @return the left element, not null
+     */
+    @Override
+    public Double getKey() {
+        return getLeft();
+    }
+
+    /**
+     * Gets the right element, boxed as {@code Integer}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getRight()} to avoid that.
+     *
+     * @return the right element, not null
+     */
+    @Override
+    public Integer getValue() {
+        return getRight();
+    }
+
+    /**
+     * Replaces the right element, as {@link Map.Entry#setValue} requires. Pairs that can be
+     * modified override this; the default implementation throws.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     * @throws UnsupportedOperationException if this pair cannot be modified
+     */
+    @Override
+    public Integer setValue(Integer value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Passes the elements of this pair to an action.
+     *
+     * @param action  the action to perform, not null
+     */
+    public void accept(DoubleIntConsumer action) {
+        action.accept(getLeft(), getRight());
+    }
+
+    /**
+     * Evaluates a predicate on the elements of this pair.
+     *
+     * @param predicate  the predicate to evaluate, not null
+     * @return the result of the predicate
+     */
+    public boolean test(DoubleIntPredicate predicate) {
+        return predicate.test(getLeft(), getRight());
+    }
+
+    /**
+     * Applies a function to the elements of this pair.
+     *
+     * @param <T> the result type
+     * @param function  the function to apply, not null
+     * @return the result of the function
+     */
+    public <T> T apply(DoubleIntFunction<? extends T> function) {
+        return function.apply(getLeft(), getRight());
+    }
+
     /**
      * Compares the pair based on the left element followed by the right element.
      *
@@ -67,7 +139,10 @@ public abstract class DoubleIntPair implements PrimitivePair<Double, Integer>, C
     }
 
     /**
-     * Compares this pair to another based on the two elements.
+     * Compares this pair to another based on the two elements. As {@link Map.Entry#equals}
+     * requires, a pair is also equal to any other entry whose key and value equal its boxed
+     * elements. {@code double} elements are compared as {@link Double#equals} compares them, so
+     * {@code NaN} equals itself and {@code 0.0} does not equal {@code -0.0}.
      *
      * @param obj  the object to compare to, null returns false
      * @return true if the elements of the pair are equal
@@ -79,7 +154,15 @@ public abstract class DoubleIntPair implements PrimitivePair<Double, Integer>, C
         }
         if (obj instanceof DoubleIntPair) {
             DoubleIntPair o = (DoubleIntPair) obj;
-            return getLeft() == o.getLeft() && getRight() == o.getRight();
+            return Double.compare(getLeft(), o.getLeft()) == 0
+                    && getRight() == o.getRight();
+        }
+        if (obj instanceof Map.Entry<?, ?>) {
+            Map.Entry<?, ?> o = (Map.Entry<?, ?>) obj;
+            Object key = o.getKey();
+            Object value = o.getValue();
+            return key instanceof Double && Double.compare((Double) key, getLeft()) == 0
+                    && value instanceof Integer && (Integer) value == getRight();
         }
         return false;
     }
@@ -0,0 +1,190 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Writes and reads files of {@link DoubleIntPair}s in a simple fixed-width binary format: a 32-byte
+ * header that records the {@link PairShape#DOUBLE_INT_PAIR shape}, byte order and number of pairs,
+ * followed by one 12-byte row per pair, the left element followed by the right element.
+ * <p>
+ * Files are written in the platform's native byte order. {@link #map(Path)} maps a file into
+ * memory rather than reading it, so opening even a very large file is nearly instantaneous, the
+ * pairs never occupy the Java heap, and pages are loaded and shared through the operating
+ * system's page cache as they are accessed.
+ *
+ * @author Brandon Mintern
+ */
+public final class DoubleIntPairFile {
+
+    private DoubleIntPairFile() {}
+
+    /**
+     * Opens a writer that creates or replaces a file of pairs.
+     *
+     * @param file  the file to write, not null
+     * @return a writer that must be closed to complete the file, not null
+     * @throws IOException if the file cannot be opened or written
+     */
+    public static Writer newWriter(Path file) throws IOException {
+        return new Writer(PairFiles.create(file));
+    }
+
+    /**
+     * Creates or replaces a file of pairs with the contents of a list.
+     *
+     * @param file  the file to write, not null
+     * @param pairs  the pairs to write, not null
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, DoubleIntPairArrayList pairs) throws IOException {
+        try (Writer writer = newWriter(file)) {
+            for (int i = 0, n = pairs.size(); i < n; i++) {
+                writer.write(pairs.getLeft(i), pairs.getRight(i));
+            }
+        }
+    }
+
+    /**
+     * Creates or replaces a file of pairs with the contents of an off-heap array.
+     *
+     * @param file  the file to write, not null
+     * @param pairs  the pairs to write, not null and not closed
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, OffHeapDoubleIntPairArray pairs) throws IOException {
+        try (Writer writer = newWriter(file)) {
+            for (long i = 0, n = pairs.size(); i < n; i++) {
+                writer.write(pairs.getLeft(i), pairs.getRight(i));
+            }
+        }
+    }
+
+    /**
+     * Maps a file of pairs into memory. The file's contents are not read until they are
+     * accessed. The returned array is read-only: its setters throw
+     * {@link java.nio.ReadOnlyBufferException}. Closing it unmaps the file where the JVM allows
+     * it; otherwise the file is unmapped when the array is garbage collected.
+     * <p>
+     * The file must not be truncated while it is mapped, since that may crash the JVM.
+     *
+     * @param file  the file to map, not null
+     * @return an array backed by the file's pairs, not null
+     * @throws IOException if the file cannot be read or is not a file of {@code DoubleIntPair}s
+     */
+    public static OffHeapDoubleIntPairArray map(Path file) throws IOException {
+        int chunkSize = OffHeapDoubleIntPairArray.CHUNK_SIZE;
+        ByteBuffer[] chunks = PairFiles.map(file, PairShape.DOUBLE_INT_PAIR, chunkSize);
+        return new OffHeapDoubleIntPairArray(chunks);
+    }
+
+    /**
+     * Reads a file of pairs onto the heap.
+     *
+     * @param file  the file to read, not null
+     * @return a new list of the file's pairs, not null
+     * @throws IOException  if the file cannot be read, is not a file of {@code DoubleIntPair}s, or
+     * holds
+     *         too many pairs for a list
+     */
+    public static DoubleIntPairArrayList read(Path file) throws IOException {
+        try (OffHeapDoubleIntPairArray pairs = map(file)) {
+            long n = pairs.size();
+            if (n > Integer.MAX_VALUE - 8) {
+                throw new IOException("Too many pairs for a list: " + n);
+            }
+            DoubleIntPairArrayList list = new DoubleIntPairArrayList((int) n);
+            for (int i = 0; i < n; i++) {
+                list.add(pairs.getLeft(i), pairs.getRight(i));
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Writes pairs to a file one at a time, buffering them in memory. The file is complete once
+     * the writer is closed.
+     * <p>
+     * Not #ThreadSafe#
+     */
+    public static final class Writer implements Closeable {
+
+        private static final int BUFFER_PAIRS = 4096;
+
+        private final FileChannel channel;
+        private ByteBuffer buffer =
+                ByteBuffer.allocate(BUFFER_PAIRS * OffHeapDoubleIntPairArray.BYTES)
+                        .order(ByteOrder.nativeOrder());
+        private long count;
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Appends a pair to the file.
+         *
+         * @param left  the left element
+         * @param right  the right element
+         * @throws IOException if the file cannot be written
+         * @throws IllegalStateException if this writer has been closed
+         */
+        public void write(double left, int right) throws IOException {
+            ByteBuffer b = buffer;
+            if (b == null) {
+                throw new IllegalStateException("Writer is closed");
+            }
+            if (!b.hasRemaining()) {
+                PairFiles.flush(channel, b);
+            }
+            b.putDouble(left).putInt(right);
+            count++;
+        }
+
+        /**
+         * Gets the number of pairs written so far.
+         *
+         * @return the number of pairs
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Writes any buffered pairs and the header, and closes the file. Calling this more than
+         * once has no further effect.
+         *
+         * @throws IOException if the file cannot be written
+         */
+        @Override
+        public void close() throws IOException {
+            ByteBuffer b = buffer;
+            if (b == null) {
+                return;
+            }
+            buffer = null;
+            try {
+                PairFiles.flush(channel, b);
+                PairFiles.finish(channel, PairShape.DOUBLE_INT_PAIR, b.order(), count);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * Maintains a running {@code (double sum, long count)} pair, such as for computing a mean, in a
+ * way that scales when many threads add to it. Like {@link java.util.concurrent.atomic.LongAdder},
+ * it spreads contended updates over a set of cells, each padded against false sharing, and only
+ * combines them when the total is read. This is much faster under contention than guarding a
+ * {@link MutableDoubleLongPair} with a lock, at the cost of more memory.
+ * <p>
+ * The sum and the count within a cell are updated one after the other, and the cells are read one
+ * at a time. A total that is read while other threads are adding is therefore not an atomic
+ * snapshot: it may, for example, include a value whose count has not been added yet. Once adding
+ * stops, the total is exact.
+ * <p>
+ * As with any floating-point sum, the result may depend on the order in which values are combined,
+ * which varies with contention.
+ * <p>
+ * #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public class DoubleLongPairAdder extends StripedPairAdder {
+
+    /**
+     * Creates a new adder with a sum and count of zero.
+     */
+    public DoubleLongPairAdder() {}
+
+    /**
+     * Adds a value to the sum and 1 to the count.
+     *
+     * @param x  the value to add
+     */
+    public void add(double x) {
+        update(Double.doubleToRawLongBits(x), 1);
+    }
+
+    /**
+     * Adds a partial sum and the number of values that it covers, such as a total from another
+     * adder.
+     *
+     * @param sum  the value to add to the sum
+     * @param count  the value to add to the count
+     */
+    public void add(double sum, long count) {
+        update(Double.doubleToRawLongBits(sum), count);
+    }
+
+    /**
+     * Obtains the current total.
+     *
+     * @return a pair of the sum and the count, not null
+     */
+    public ImmutableDoubleLongPair sum() {
+        double sum = Double.longBitsToDouble(base.first);
+        long count = base.second;
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c: cs) {
+                if (c != null) {
+                    sum += Double.longBitsToDouble(c.first);
+                    count += c.second;
+                }
+            }
+        }
+        return ImmutableDoubleLongPair.of(sum, count);
+    }
+
+    /**
+     * Computes the mean of the values added so far.
+     *
+     * @return the sum divided by the count, or {@code NaN} if the count is zero
+     */
+    public double mean() {
+        DoubleLongPair total = sum();
+        return total.getRight() == 0 ? Double.NaN : total.getLeft() / total.getRight();
+    }
+
+    /**
+     * Resets the sum and the count to zero. This is only a reliable reset if no other thread is
+     * adding concurrently.
+     */
+    public void reset() {
+        sumThenReset();
+    }
+
+    /**
+     * Obtains the current total and resets the sum and the count to zero. Values added
+     * concurrently are counted in either this total or the next one.
+     *
+     * @return a pair of the sum and the count before the reset, not null
+     */
+    public ImmutableDoubleLongPair sumThenReset() {
+        double sum = Double.longBitsToDouble(Cell.FIRST.getAndSet(base, 0));
+        long count = Cell.SECOND.getAndSet(base, 0);
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c: cs) {
+                if (c != null) {
+                    sum += Double.longBitsToDouble(Cell.FIRST.getAndSet(c, 0));
+                    count += Cell.SECOND.getAndSet(c, 0);
+                }
+            }
+        }
+        return ImmutableDoubleLongPair.of(sum, count);
+    }
+
+    /**
+     * Returns a String representation of the current total using the format
+     * {@code ($sum,$count)}.
+     *
+     * @return a string describing the current total, not null
+     */
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+
+    @Override
+    long addToFirst(long first, long x) {
+        return Double.doubleToRawLongBits(
+                Double.longBitsToDouble(first) + Double.longBitsToDouble(x));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Converts in bulk between collections of boxed pairs, such as Apache Commons
+ * {@code Pair<Double, Long>}s, and {@link DoubleLongPairArrayList}s, which store pairs of
+ * {@code double} and {@code long} elements in primitive columns.
+ * <p>
+ * {@link #fromBoxed(Collection, NullPolicy)} sizes the destination list once and copies each
+ * element straight into its columns, without creating an intermediate {@link DoubleLongPair} for
+ * any element. {@link #toBoxedList} goes the other way lazily, boxing a pair only when it is
+ * requested.
+ *
+ * @author Brandon Mintern
+ */
+public final class DoubleLongPairs {
+
+    private DoubleLongPairs() {}
+
+    /**
+     * Copies boxed pairs into a new list, rejecting any null pair or element. This is equivalent
+     * to {@code fromBoxed(pairs, NullPolicy.THROW)}.
+     *
+     * @param pairs  the boxed pairs, such as Apache Commons pairs or {@link DoubleLongPair}s, not
+     * null
+     * @return a new list of the pairs in iteration order, not null
+     * @throws NullPointerException if a pair or one of its elements is null
+     */
+    public static DoubleLongPairArrayList fromBoxed(
+            Collection<? extends Map.Entry<Double, Long>> pairs) {
+        return fromBoxed(pairs, NullPolicy.THROW);
+    }
+
+    /**
+     * Copies boxed pairs into a new list, which is allocated with exactly enough capacity for all
+     * of them. Any {@link Map.Entry} is accepted, so this converts Apache Commons pairs as well
+     * as collections of {@link DoubleLongPair}s, whose elements are copied without boxing.
+     *
+     * @param pairs  the boxed pairs, not null
+     * @param nullPolicy  how to treat a null pair or element, not null
+     * @return a new list of the pairs in iteration order, not null
+     * @throws NullPointerException if a pair or one of its elements is null and
+     *      {@code nullPolicy} is {@link NullPolicy#THROW}
+     */
+    public static DoubleLongPairArrayList fromBoxed(
+            Collection<? extends Map.Entry<Double, Long>> pairs, NullPolicy nullPolicy) {
+        DoubleLongPairArrayList list = new DoubleLongPairArrayList(pairs.size());
+        addAllBoxed(list, pairs, nullPolicy);
+        return list;
+    }
+
+    /**
+     * Appends boxed pairs to a list, growing it at most once beforehand.
+     *
+     * @param list  the list to append to, not null
+     * @param pairs  the boxed pairs, not null
+     * @param nullPolicy  how to treat a null pair or element, not null
+     * @throws NullPointerException if a pair or one of its elements is null and
+     *      {@code nullPolicy} is {@link NullPolicy#THROW}, in which case the pairs before it
+     *      have already been appended
+     */
+    public static void addAllBoxed(DoubleLongPairArrayList list,
+            Collection<? extends Map.Entry<Double, Long>> pairs, NullPolicy nullPolicy) {
+        if (nullPolicy == null) {
+            throw new NullPointerException("nullPolicy");
+        }
+        list.ensureCapacity(list.size() + pairs.size());
+        int index = 0;
+        for (Map.Entry<Double, Long> pair: pairs) {
+            if (pair instanceof DoubleLongPair) {
+                DoubleLongPair p = (DoubleLongPair) pair;
+                list.add(p.getLeft(), p.getRight());
+            } else {
+                Double left = pair == null ? null : pair.getKey();
+                Long right = pair == null ? null : pair.getValue();
+                if (left != null && right != null) {
+                    list.add(left, right);
+                } else if (nullPolicy == NullPolicy.ZERO) {
+                    list.add(left == null ? 0.0 : left, right == null ? 0L : right);
+                } else if (nullPolicy == NullPolicy.THROW) {
+                    throw new NullPointerException(pair == null
+                            ? "Null pair at index " + index
+                            : "Null element in pair at index " + index);
+                }
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Obtains a fixed-size view of a list as boxed Apache Commons pairs. Each call to
+     * {@code get} boxes the current elements into a new {@link ImmutablePair}, so the view always
+     * reflects the list, and nothing is copied up front. As with {@link java.util.Arrays#asList},
+     * {@code set} writes through to the list, but pairs cannot be added or removed through the
+     * view.
+     *
+     * @param list  the list to view, not null
+     * @return a boxed view of {@code list}, not null
+     */
+    public static List<Pair<Double, Long>> toBoxedList(DoubleLongPairArrayList list) {
+        if (list == null) {
+            throw new NullPointerException("list");
+        }
+        return new BoxedList(list);
+    }
+
+    private static final class BoxedList extends AbstractList<Pair<Double, Long>>
+            implements RandomAccess {
+
+        private final DoubleLongPairArrayList list;
+
+        BoxedList(DoubleLongPairArrayList list) {
+            this.list = list;
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public Pair<Double, Long> get(int index) {
+            return ImmutablePair.<Double, Long>of(list.getLeft(index), list.getRight(index));
+        }
+
+        @Override
+        public Pair<Double, Long> set(int index, Pair<Double, Long> pair) {
+            Pair<Double, Long> old = get(index);
+            list.set(index, pair.getLeft(), pair.getRight());
+            return old;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An append-only series of {@code (value, timestamp)} samples, stored as {@link DoubleLongPair}s
+ * whose left element is the value and whose right element is the timestamp, compressed in memory
+ * with the encoding of Facebook's Gorilla time series database. Samples are usually appended in
+ * timestamp order at a steady interval and their values change slowly, and then most samples take
+ * only a few bits.
+ * <p>
+ * The first sample is stored as is. After that, each timestamp is stored as the difference between
+ * its delta from the previous timestamp and the previous delta, in a variable-length bit code: a
+ * regular interval takes a single bit. Each value is stored as its bitwise XOR with the previous
+ * value: an unchanged value takes a single bit, and otherwise only the bits between the leading
+ * and trailing zeros of the XOR are stored, reusing the previous value's span of bits when it
+ * covers them.
+ * <p>
+ * Timestamps may be in any unit and need not increase, although an irregular series compresses
+ * less well. Samples can only be read in order, with a {@link #cursor()} that decodes without
+ * allocating.
+ * <p>
+ * Not #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ * @see <a href="http://www.vldb.org/pvldb/vol8/p1816-teller.pdf">Gorilla: A Fast, Scalable,
+ *      In-Memory Time Series Database</a>
+ */
+public class DoubleLongTimeSeries {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** A leading zero count that never permits reusing the previous span of bits. */
+    private static final int NO_SPAN = 64;
+
+    private long[] words;
+    private long bitLength;
+    private int size;
+
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastBits;
+    private int lastLeading = NO_SPAN;
+    private int lastTrailing;
+
+    /**
+     * Creates an empty series.
+     */
+    public DoubleLongTimeSeries() {
+        words = new long[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Gets the number of samples in this series.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether this series has no samples.
+     *
+     * @return true if the size is zero
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of bytes used by the encoded samples, not counting unused capacity.
+     *
+     * @return the encoded size in bytes
+     */
+    public long encodedBytes() {
+        return (bitLength + 7) >>> 3;
+    }
+
+    /**
+     * Appends a sample to the end of this series.
+     *
+     * @param value  the value
+     * @param timestamp  the time of the sample
+     */
+    public void add(double value, long timestamp) {
+        if (size == Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Too many samples");
+        }
+        if (bitLength + 2 * (64 + 13) > (long) words.length << 6) {
+            grow((int) ((bitLength + 2 * (64 + 13)) >>> 6) + 1);
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        if (size == 0) {
+            writeBits(timestamp, 64);
+            writeBits(bits, 64);
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            lastDelta = delta;
+            writeXor(bits ^ lastBits);
+        }
+        lastTimestamp = timestamp;
+        lastBits = bits;
+        size++;
+    }
+
+    /**
+     * Appends a sample to the end of this series.
+     *
+     * @param sample  the value and the timestamp, not null
+     */
+    public void add(DoubleLongPair sample) {
+        add(sample.getLeft(), sample.getRight());
+    }
+
+    /**
+     * Creates a cursor that is positioned before the first sample.
+     *
+     * @return a new cursor, not null
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Decodes all of the samples into a new list.
+     *
+     * @return a list of the {@code (value, timestamp)} samples in this series, not null
+     */
+    public DoubleLongPairArrayList toArrayList() {
+        DoubleLongPairArrayList samples = new DoubleLongPairArrayList(size);
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            samples.add(cursor.value, cursor.timestamp);
+        }
+        return samples;
+    }
+
+    /**
+     * Reduces the memory used by this series to what its samples require.
+     */
+    public void trimToSize() {
+        words = Arrays.copyOf(words, (int) ((bitLength + 63) >>> 6));
+    }
+
+    /**
+     * Writes the encoded samples: the number of samples as an {@code int} and the number of bits
+     * as a {@code long}, followed by the {@code long} words that hold the bits.
+     *
+     * @param out  the output to write to, not null
+     * @throws IOException if the output cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeLong(bitLength);
+        for (int i = 0, n = (int) ((bitLength + 63) >>> 6); i < n; i++) {
+            out.writeLong(words[i]);
+        }
+    }
+
+    /**
+     * Reads a series that was written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in  the input to read from, not null
+     * @return a new series, not null
+     * @throws IOException if the input cannot be read or does not hold a valid series
+     */
+    public static DoubleLongTimeSeries readFrom(DataInput in) throws IOException {
+        int size = in.readInt();
+        long bitLength = in.readLong();
+        if (size < 0 || bitLength < 0 || bitLength > (long) MAX_CAPACITY << 6
+                || (size == 0) != (bitLength == 0)) {
+            throw new IOException("Corrupt series header: " + size + ", " + bitLength);
+        }
+        DoubleLongTimeSeries series = new DoubleLongTimeSeries();
+        series.words = new long[(int) ((bitLength + 63) >>> 6)];
+        for (int i = 0; i < series.words.length; i++) {
+            series.words[i] = in.readLong();
+        }
+        series.bitLength = bitLength;
+        series.size = size;
+        Cursor cursor = series.cursor();
+        try {
+            while (cursor.next()) {
+                if (cursor.pos > bitLength) {
+                    throw new IOException("Corrupt series: expected " + size + " samples");
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupt series: expected " + size + " samples", e);
+        }
+        if (cursor.pos != bitLength) {
+            throw new IOException("Corrupt series: expected " + size + " samples");
+        }
+        series.lastTimestamp = cursor.timestamp;
+        series.lastDelta = cursor.delta;
+        series.lastBits = cursor.bits;
+        series.lastLeading = cursor.leading;
+        series.lastTrailing = cursor.trailing;
+        return series;
+    }
+
+    /**
+     * Returns a String representation of this series, in the same format as a {@code List} of
+     * {@code (value,timestamp)} pairs.
+     *
+     * @return a string describing this series, not null
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append('(').append(cursor.value).append(',').append(cursor.timestamp).append(')');
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Writes a delta of deltas as a prefix code followed by its zig-zag encoding: {@code 0} for
+     * zero, {@code 10} and 7 bits, {@code 110} and 9 bits, {@code 1110} and 12 bits, or
+     * {@code 1111} and 64 bits.
+     */
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        long zz = Varints.zigZag(deltaOfDelta);
+        if ((zz >>> 7) == 0) {
+            writeBits(0b10L << 7 | zz, 2 + 7);
+        } else if ((zz >>> 9) == 0) {
+            writeBits(0b110L << 9 | zz, 3 + 9);
+        } else if ((zz >>> 12) == 0) {
+            writeBits(0b1110L << 12 | zz, 4 + 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(zz, 64);
+        }
+    }
+
+    /**
+     * Writes the XOR of a value with the previous one: {@code 0} if it is zero; {@code 10} and the
+     * meaningful bits if they fit within the previous span; otherwise {@code 11}, 5 bits of
+     * leading zero count, 6 bits of meaningful bit count (0 meaning 64), and the meaningful bits.
+     */
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (leading >= lastLeading && trailing >= lastTrailing) {
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+        } else {
+            int meaningful = 64 - leading - trailing;
+            writeBits(0b11L << 11 | leading << 6 | (meaningful & 63), 2 + 5 + 6);
+            writeBits(xor >>> trailing, meaningful);
+            lastLeading = leading;
+            lastTrailing = trailing;
+        }
+    }
+
+    /**
+     * Appends the low {@code n} bits of {@code value}, most significant first. The words must have
+     * room for them.
+     */
+    private void writeBits(long value, int n) {
+        int index = (int) (bitLength >>> 6);
+        int free = 64 - (int) (bitLength & 63);
+        if (n < 64) {
+            value &= (1L << n) - 1;
+        }
+        if (n <= free) {
+            words[index] |= value << (free - n);
+        } else {
+            words[index] |= value >>> (n - free);
+            words[index + 1] |= value << (64 - (n - free));
+        }
+        bitLength += n;
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required capacity is too large: " + minCapacity);
+        }
+        int oldCapacity = words.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) {
+            newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        }
+        words = Arrays.copyOf(words, newCapacity);
+    }
+
+    /**
+     * Decodes the samples of the enclosing series in order. A cursor created before samples are
+     * appended also visits the appended samples.
+     * <p>
+     * Not #ThreadSafe#
+     */
+    public final class Cursor {
+
+        private long pos;
+        private int index;
+        private boolean current;
+
+        private long timestamp;
+        private long delta;
+        private long bits;
+        private int leading = NO_SPAN;
+        private int trailing;
+        private double value;
+
+        private Cursor() {}
+
+        /**
+         * Advances to the next sample.
+         *
+         * @return true if the cursor is now positioned at a sample, false if none remain
+         */
+        public boolean next() {
+            if (index >= size) {
+                current = false;
+                return false;
+            }
+            if (index == 0) {
+                timestamp = readBits(64);
+                bits = readBits(64);
+            } else {
+                delta += readDeltaOfDelta();
+                timestamp += delta;
+                bits ^= readXor();
+            }
+            value = Double.longBitsToDouble(bits);
+            index++;
+            current = true;
+            return true;
+        }
+
+        /**
+         * Advances to the next sample and copies it into {@code into}.
+         *
+         * @param into  the pair to fill with the value and the timestamp, not null
+         * @return true if a sample was copied, false if none remain
+         */
+        public boolean next(MutableDoubleLongPair into) {
+            if (!next()) {
+                return false;
+            }
+            into.left = value;
+            into.right = timestamp;
+            return true;
+        }
+
+        /**
+         * Gets the value of the current sample.
+         *
+         * @return the value
+         * @throws NoSuchElementException if the cursor is not positioned at a sample
+         */
+        public double getValue() {
+            checkCurrent();
+            return value;
+        }
+
+        /**
+         * Gets the timestamp of the current sample.
+         *
+         * @return the timestamp
+         * @throws NoSuchElementException if the cursor is not positioned at a sample
+         */
+        public long getTimestamp() {
+            checkCurrent();
+            return timestamp;
+        }
+
+        /**
+         * Copies the current sample into {@code into}.
+         *
+         * @param into  the pair to fill with the value and the timestamp, not null
+         * @return {@code into}
+         * @throws NoSuchElementException if the cursor is not positioned at a sample
+         */
+        public MutableDoubleLongPair get(MutableDoubleLongPair into) {
+            checkCurrent();
+            into.left = value;
+            into.right = timestamp;
+            return into;
+        }
+
+        private void checkCurrent() {
+            if (!current) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        private long readDeltaOfDelta() {
+            if (readBits(1) == 0) {
+                return 0;
+            }
+            long zz;
+            if (readBits(1) == 0) {
+                zz = readBits(7);
+            } else if (readBits(1) == 0) {
+                zz = readBits(9);
+            } else if (readBits(1) == 0) {
+                zz = readBits(12);
+            } else {
+                zz = readBits(64);
+            }
+            return Varints.unZigZag(zz);
+        }
+
+        private long readXor() {
+            if (readBits(1) == 0) {
+                return 0;
+            }
+            if (readBits(1) != 0) {
+                int header = (int) readBits(5 + 6);
+                leading = header >>> 6;
+                int meaningful = header & 63;
+                trailing = 64 - leading - (meaningful == 0 ? 64 : meaningful);
+            }
+            return readBits(64 - leading - trailing) << trailing;
+        }
+
+        /**
+         * Reads the next {@code n} bits, most significant first, where {@code n} is at least 1.
+         */
+        private long readBits(int n) {
+            long[] w = words;
+            int index = (int) (pos >>> 6);
+            int used = (int) (pos & 63);
+            long value = (w[index] << used) >>> (64 - n);
+            int rest = n - (64 - used);
+            if (rest > 0) {
+                value |= w[index + 1] >>> (64 - rest);
+            }
+            pos += n;
+            return value;
+        }
+    }
+}
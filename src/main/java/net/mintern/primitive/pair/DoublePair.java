@@ -16,6 +16,11 @@
  */
 package net.mintern.primitive.pair;
 
+import java.util.Map;
+import net.mintern.primitive.pair.function.DoubleDoubleConsumer;
+import net.mintern.primitive.pair.function.DoubleDoubleFunction;
+import net.mintern.primitive.pair.function.DoubleDoublePredicate;
+
 /**
  * A pair modeled after {@link org.apache.commons.lang3.tuple.Pair} that consists of {@code double}
  * elements that allows users to avoid {@code Double} boxing. It refers to the elements as 'left'
@@ -54,6 +59,73 @@ public abstract class DoublePair implements PrimitivePair<Double, Double>, Compa
      */
     public abstract double getRight();
 
+    /**
+     * Gets the left element, boxed as {@code Double}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getLeft()} to avoid that.
+     *
+     * @return the left element, not null
+     */
+    @Override
+    public Double getKey() {
+        return getLeft();
+    }
+
+    /**
+     * Gets the right element, boxed as {@code Double}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getRight()} to avoid that.
+     *
+     * @return the right element, not null
+     */
+    @Override
+    public Double getValue() {
+        return getRight();
+    }
+
+    /**
+     * Replaces the right element, as {@link Map.Entry#setValue} requires. Pairs that can be
+     * modified override this; the default implementation throws.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     * @throws UnsupportedOperationException if this pair cannot be modified
+     */
+    @Override
+    public Double setValue(Double value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Passes the elements of this pair to an action.
+     *
+     * @param action  the action to perform, not null
+     */
+    public void accept(DoubleDoubleConsumer action) {
+        action.accept(getLeft(), getRight());
+    }
+
+    /**
+     * Evaluates a predicate on the elements of this pair.
+     *
+     * @param predicate  the predicate to evaluate, not null
+     * @return the result of the predicate
+     */
+    public boolean test(DoubleDoublePredicate predicate) {
+        return predicate.test(getLeft(), getRight());
+    }
+
+    /**
+     * Applies a function to the elements of this pair.
+     *
+     * @param <T> the result type
+     * @param function  the function to apply, not null
+     * @return the result of the function
+     */
+    public <T> T apply(DoubleDoubleFunction<? extends T> function) {
+        return function.apply(getLeft(), getRight());
+    }
+
     /**
      * Compares the pair based on the left element followed by the right element.
      *
@@ -67,7 +139,10 @@ public abstract class DoublePair implements PrimitivePair<Double, Double>, Compa
     }
 
     /**
-     * Compares this pair to another based on the two elements.
+     * Compares this pair to another based on the two elements. As {@link Map.Entry#equals}
+     * requires, a pair is also equal to any other entry whose key and value equal its boxed
+     * elements. {@code double} elements are compared as {@link Double#equals} compares them, so
+     * {@code NaN} equals itself and {@code 0.0} does not equal {@code -0.0}.
      *
      * @param obj  the object to compare to, null returns false
      * @return true if the elements of the pair are equal
@@ -79,7 +154,15 @@ public abstract class DoublePair implements PrimitivePair<Double, Double>, Compa
         }
         if (obj instanceof DoublePair) {
             DoublePair o = (DoublePair) obj;
-            return getLeft() == o.getLeft() && getRight() == o.getRight();
+            return Double.compare(getLeft(), o.getLeft()) == 0
+                    && Double.compare(getRight(), o.getRight()) == 0;
+        }
+        if (obj instanceof Map.Entry<?, ?>) {
+            Map.Entry<?, ?> o = (Map.Entry<?, ?>) obj;
+            Object key = o.getKey();
+            Object value = o.getValue();
+            return key instanceof Double && Double.compare((Double) key, getLeft()) == 0
+                    && value instanceof Double && Double.compare((Double) value, getRight()) == 0;
         }
         return false;
     }
@@ -0,0 +1,429 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.RandomAccess;
+import net.mintern.primitive.pair.function.DoubleDoubleConsumer;
+
+/**
+ * A growable list of {@link DoublePair}s that stores the left and right elements in two parallel
+ * {@code double[]} columns rather than storing one object per pair. Compared to an
+ * {@code ArrayList<DoublePair>}, this avoids an object header and a reference for each element, and
+ * scanning the list reads contiguous memory instead of chasing a pointer per element.
+ * <p>
+ * The primitive accessors ({@link #add(double, double)}, {@link #getLeft(int)},
+ * {@link #getRight(int)} and {@link #set(int, double, double)}) never allocate. The
+ * {@link java.util.List} methods are supported for interoperability: {@link #get(int)} creates an
+ * {@link ImmutableDoublePair} on demand, and {@link #get(int, MutableDoublePair)} fills a
+ * caller-supplied pair instead.
+ * <p>
+ * Not #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public class DoublePairArrayList extends AbstractList<DoublePair>
+        implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1;
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private transient double[] lefts;
+    private transient double[] rights;
+    private int size;
+
+    /**
+     * Creates an empty list with the default initial capacity.
+     */
+    public DoublePairArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list with the given initial capacity.
+     *
+     * @param initialCapacity  the number of pairs the list can hold before it must grow
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative
+     */
+    public DoublePairArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        lefts = new double[initialCapacity];
+        rights = new double[initialCapacity];
+    }
+
+    /**
+     * Creates a list containing the elements of the given collection, in its iteration order.
+     *
+     * @param pairs  the pairs to copy, not null and without null elements
+     */
+    public DoublePairArrayList(Collection<? extends DoublePair> pairs) {
+        this(pairs.size());
+        for (DoublePair pair: pairs) {
+            add(pair.getLeft(), pair.getRight());
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the left element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the left element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getLeft(int index) {
+        checkIndex(index);
+        return lefts[index];
+    }
+
+    /**
+     * Gets the right element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getRight(int index) {
+        checkIndex(index);
+        return rights[index];
+    }
+
+    /**
+     * Obtains an immutable copy of the pair at the given position. Use the primitive accessors or
+     * {@link #get(int, MutableDoublePair)} to avoid the allocation.
+     *
+     * @param index  the index of the pair
+     * @return the pair at {@code index}, not null
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public DoublePair get(int index) {
+        checkIndex(index);
+        return ImmutableDoublePair.of(lefts[index], rights[index]);
+    }
+
+    /**
+     * Copies the pair at the given position into {@code into}.
+     *
+     * @param index  the index of the pair
+     * @param into  the pair to fill, not null
+     * @return {@code into}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public MutableDoublePair get(int index, MutableDoublePair into) {
+        checkIndex(index);
+        into.left = lefts[index];
+        into.right = rights[index];
+        return into;
+    }
+
+    /**
+     * Appends a pair to the end of this list.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     */
+    public void add(double left, double right) {
+        modCount++;
+        int s = size;
+        if (s == lefts.length) {
+            grow(s + 1);
+        }
+        lefts[s] = left;
+        rights[s] = right;
+        size = s + 1;
+    }
+
+    @Override
+    public boolean add(DoublePair pair) {
+        add(pair.getLeft(), pair.getRight());
+        return true;
+    }
+
+    /**
+     * Inserts a pair at the given position, shifting the pair currently at that position and any
+     * subsequent pairs to the right.
+     *
+     * @param index  the index at which to insert the pair
+     * @param left  the left element
+     * @param right  the right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void add(int index, double left, double right) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMessage(index));
+        }
+        modCount++;
+        int s = size;
+        if (s == lefts.length) {
+            grow(s + 1);
+        }
+        System.arraycopy(lefts, index, lefts, index + 1, s - index);
+        System.arraycopy(rights, index, rights, index + 1, s - index);
+        lefts[index] = left;
+        rights[index] = right;
+        size = s + 1;
+    }
+
+    @Override
+    public void add(int index, DoublePair pair) {
+        add(index, pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Replaces the pair at the given position.
+     *
+     * @param index  the index of the pair to replace
+     * @param left  the new left element
+     * @param right  the new right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, double left, double right) {
+        checkIndex(index);
+        lefts[index] = left;
+        rights[index] = right;
+    }
+
+    @Override
+    public DoublePair set(int index, DoublePair pair) {
+        checkIndex(index);
+        DoublePair old = ImmutableDoublePair.of(lefts[index], rights[index]);
+        lefts[index] = pair.getLeft();
+        rights[index] = pair.getRight();
+        return old;
+    }
+
+    /**
+     * Replaces the left element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @param left  the new left element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void setLeft(int index, double left) {
+        checkIndex(index);
+        lefts[index] = left;
+    }
+
+    /**
+     * Replaces the right element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @param right  the new right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void setRight(int index, double right) {
+        checkIndex(index);
+        rights[index] = right;
+    }
+
+    @Override
+    public DoublePair remove(int index) {
+        checkIndex(index);
+        DoublePair old = ImmutableDoublePair.of(lefts[index], rights[index]);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        System.arraycopy(lefts, toIndex, lefts, fromIndex, size - toIndex);
+        System.arraycopy(rights, toIndex, rights, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    /**
+     * Increases the capacity of this list, if necessary, so that it can hold at least
+     * {@code minCapacity} pairs without growing.
+     *
+     * @param minCapacity  the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > lefts.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Trims the capacity of this list to its current size.
+     */
+    public void trimToSize() {
+        if (size < lefts.length) {
+            modCount++;
+            lefts = Arrays.copyOf(lefts, size);
+            rights = Arrays.copyOf(rights, size);
+        }
+    }
+
+    /**
+     * Passes the elements of each pair in this list to an action, in order, without creating any
+     * pairs.
+     *
+     * @param action  the action to perform, not null
+     * @throws java.util.ConcurrentModificationException if the action modifies this list
+     */
+    public void forEach(DoubleDoubleConsumer action) {
+        int expectedModCount = modCount;
+        for (int i = 0, n = size; i < n; i++) {
+            action.accept(lefts[i], rights[i]);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Sorts this list into the ascending order defined by {@link DoublePair#compareTo} without
+     * creating any pairs.
+     *
+     * @see PairSorts#sort(double[], double[], int, int)
+     */
+    public void sort() {
+        modCount++;
+        PairSorts.sort(lefts, rights, 0, size);
+    }
+
+    /**
+     * Copies the left elements of this list into a new array.
+     *
+     * @return an array of length {@link #size()} containing the left elements in order
+     */
+    public double[] toLeftArray() {
+        return Arrays.copyOf(lefts, size);
+    }
+
+    /**
+     * Copies the right elements of this list into a new array.
+     *
+     * @return an array of length {@link #size()} containing the right elements in order
+     */
+    public double[] toRightArray() {
+        return Arrays.copyOf(rights, size);
+    }
+
+    /**
+     * Compares this list to another. When the other object is also a {@code DoublePairArrayList},
+     * the columns are compared directly without creating any pairs.
+     *
+     * @param obj  the object to compare to, null returns false
+     * @return true if both are lists containing equal pairs in the same order
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoublePairArrayList)) {
+            return super.equals(obj);
+        }
+        DoublePairArrayList o = (DoublePairArrayList) obj;
+        if (size != o.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (Double.compare(lefts[i], o.lefts[i]) != 0
+                    || Double.compare(rights[i], o.rights[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code defined by {@link java.util.List#hashCode()}, computed from the
+     * columns without creating any pairs.
+     *
+     * @return the hash code
+     * @see DoublePair#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + (Double.hashCode(lefts[i]) ^ Double.hashCode(rights[i]));
+        }
+        return hash;
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required capacity is too large: " + minCapacity);
+        }
+        int oldCapacity = lefts.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) {
+            newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        }
+        lefts = Arrays.copyOf(lefts, newCapacity);
+        rights = Arrays.copyOf(rights, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMessage(index));
+        }
+    }
+
+    private String outOfBoundsMessage(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(lefts[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(rights[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (size < 0) {
+            throw new InvalidObjectException("Negative size: " + size);
+        }
+        lefts = new double[size];
+        rights = new double[size];
+        for (int i = 0; i < size; i++) {
+            lefts[i] = in.readDouble();
+        }
+        for (int i = 0; i < size; i++) {
+            rights[i] = in.readDouble();
+        }
+    }
+}
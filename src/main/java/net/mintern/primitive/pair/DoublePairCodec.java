@@ -0,0 +1,267 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes {@link DoublePair}s as 16 bytes each, the left element followed by the right
+ * element, without reflection or per-pair metadata. The {@link DataOutput} methods write
+ * big-endian data, as {@code DataOutput} always does; the {@link ByteBuffer} methods use the
+ * buffer's byte order and advance its position, like its relative get and put methods. The
+ * encoding is the same as that read by {@link BufferDoublePair}.
+ * <p>
+ * Decoding fills a caller-supplied {@link MutableDoublePair} or arrays, so a decode loop need not
+ * allocate:
+ * <pre>
+ * MutableDoublePair pair = new MutableDoublePair();
+ * for (int i = 0; i &lt; count; i++) {
+ *     process(DoublePairCodec.read(in, pair));
+ * }
+ * </pre>
+ *
+ * @author Brandon Mintern
+ */
+public final class DoublePairCodec {
+
+    /** The number of bytes in an encoded pair. */
+    public static final int BYTES = 16;
+
+    /**
+     * The most pairs that {@link #readList(DataInput)} allocates room for before reading them, so
+     * that a corrupt size cannot exhaust the heap before the input runs out.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+    private DoublePairCodec() {}
+
+    /**
+     * Writes a pair.
+     *
+     * @param out  the output to write to, not null
+     * @param pair  the pair to write, not null
+     * @throws IOException if the output cannot be written
+     */
+    public static void write(DataOutput out, DoublePair pair) throws IOException {
+        write(out, pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Writes the elements of a pair.
+     *
+     * @param out  the output to write to, not null
+     * @param left  the left element
+     * @param right  the right element
+     * @throws IOException if the output cannot be written
+     */
+    public static void write(DataOutput out, double left, double right) throws IOException {
+        out.writeDouble(left);
+        out.writeDouble(right);
+    }
+
+    /**
+     * Reads a pair into {@code reuse}.
+     *
+     * @param in  the input to read from, not null
+     * @param reuse  the pair to fill, not null
+     * @return {@code reuse}
+     * @throws IOException if the input cannot be read
+     * @throws java.io.EOFException if the input ends before the pair does
+     */
+    public static MutableDoublePair read(DataInput in, MutableDoublePair reuse)
+            throws IOException {
+        reuse.left = in.readDouble();
+        reuse.right = in.readDouble();
+        return reuse;
+    }
+
+    /**
+     * Writes the pairs at indexes {@code from} (inclusive) to {@code to} (exclusive) of two
+     * parallel arrays.
+     *
+     * @param out  the output to write to, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param from  the index of the first pair to write
+     * @param to  the index after the last pair to write
+     * @throws IOException if the output cannot be written
+     * @throws IllegalArgumentException if {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException if the range is out of bounds for either array
+     */
+    public static void write(DataOutput out, double[] lefts, double[] rights, int from, int to)
+            throws IOException {
+        PairSorts.checkRange(lefts.length, rights.length, from, to);
+        for (int i = from; i < to; i++) {
+            out.writeDouble(lefts[i]);
+            out.writeDouble(rights[i]);
+        }
+    }
+
+    /**
+     * Reads pairs into indexes {@code from} (inclusive) to {@code to} (exclusive) of two parallel
+     * arrays.
+     *
+     * @param in  the input to read from, not null
+     * @param lefts  the array to fill with left elements, not null
+     * @param rights  the array to fill with right elements, not null
+     * @param from  the index of the first pair to read
+     * @param to  the index after the last pair to read
+     * @throws IOException if the input cannot be read
+     * @throws java.io.EOFException if the input ends before the last pair does
+     * @throws IllegalArgumentException if {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException if the range is out of bounds for either array
+     */
+    public static void read(DataInput in, double[] lefts, double[] rights, int from, int to)
+            throws IOException {
+        PairSorts.checkRange(lefts.length, rights.length, from, to);
+        for (int i = from; i < to; i++) {
+            lefts[i] = in.readDouble();
+            rights[i] = in.readDouble();
+        }
+    }
+
+    /**
+     * Writes a list as its size followed by its pairs.
+     *
+     * @param out  the output to write to, not null
+     * @param pairs  the pairs to write, not null
+     * @throws IOException if the output cannot be written
+     */
+    public static void write(DataOutput out, DoublePairArrayList pairs) throws IOException {
+        int n = pairs.size();
+        out.writeInt(n);
+        for (int i = 0; i < n; i++) {
+            out.writeDouble(pairs.getLeft(i));
+            out.writeDouble(pairs.getRight(i));
+        }
+    }
+
+    /**
+     * Reads a list that was written by {@link #write(DataOutput, DoublePairArrayList)}.
+     *
+     * @param in  the input to read from, not null
+     * @return a new list of the pairs read, not null
+     * @throws IOException if the input cannot be read or holds a negative size
+     * @throws java.io.EOFException if the input ends before the last pair does
+     */
+    public static DoublePairArrayList readList(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) {
+            throw new IOException("Negative size: " + n);
+        }
+        DoublePairArrayList pairs = new DoublePairArrayList(Math.min(n, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < n; i++) {
+            pairs.add(in.readDouble(), in.readDouble());
+        }
+        return pairs;
+    }
+
+    /**
+     * Puts a pair at the buffer's position and advances the position by {@link #BYTES}.
+     *
+     * @param buffer  the buffer to write to, not null
+     * @param pair  the pair to write, not null
+     * @throws java.nio.BufferOverflowException if fewer than {@link #BYTES} bytes remain
+     */
+    public static void write(ByteBuffer buffer, DoublePair pair) {
+        write(buffer, pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Puts the elements of a pair at the buffer's position and advances the position by
+     * {@link #BYTES}.
+     *
+     * @param buffer  the buffer to write to, not null
+     * @param left  the left element
+     * @param right  the right element
+     * @throws java.nio.BufferOverflowException if fewer than {@link #BYTES} bytes remain
+     */
+    public static void write(ByteBuffer buffer, double left, double right) {
+        if (buffer.remaining() < BYTES) {
+            throw new BufferOverflowException();
+        }
+        buffer.putDouble(left).putDouble(right);
+    }
+
+    /**
+     * Gets a pair at the buffer's position into {@code reuse} and advances the position by
+     * {@link #BYTES}.
+     *
+     * @param buffer  the buffer to read from, not null
+     * @param reuse  the pair to fill, not null
+     * @return {@code reuse}
+     * @throws java.nio.BufferUnderflowException if fewer than {@link #BYTES} bytes remain
+     */
+    public static MutableDoublePair read(ByteBuffer buffer, MutableDoublePair reuse) {
+        if (buffer.remaining() < BYTES) {
+            throw new BufferUnderflowException();
+        }
+        reuse.left = buffer.getDouble();
+        reuse.right = buffer.getDouble();
+        return reuse;
+    }
+
+    /**
+     * Puts the pairs at indexes {@code from} (inclusive) to {@code to} (exclusive) of two parallel
+     * arrays, starting at the buffer's position, and advances the position past them.
+     *
+     * @param buffer  the buffer to write to, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param from  the index of the first pair to write
+     * @param to  the index after the last pair to write
+     * @throws IllegalArgumentException if {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException if the range is out of bounds for either array
+     * @throws java.nio.BufferOverflowException if the buffer has too little space remaining, in
+     *         which case nothing is written
+     */
+    public static void write(ByteBuffer buffer, double[] lefts, double[] rights, int from, int to) {
+        PairSorts.checkRange(lefts.length, rights.length, from, to);
+        if ((long) (to - from) * BYTES > buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        for (int i = from; i < to; i++) {
+            buffer.putDouble(lefts[i]).putDouble(rights[i]);
+        }
+    }
+
+    /**
+     * Gets pairs, starting at the buffer's position, into indexes {@code from} (inclusive) to
+     * {@code to} (exclusive) of two parallel arrays, and advances the position past them.
+     *
+     * @param buffer  the buffer to read from, not null
+     * @param lefts  the array to fill with left elements, not null
+     * @param rights  the array to fill with right elements, not null
+     * @param from  the index of the first pair to read
+     * @param to  the index after the last pair to read
+     * @throws IllegalArgumentException if {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException if the range is out of bounds for either array
+     * @throws java.nio.BufferUnderflowException if the buffer has too few bytes remaining, in
+     *         which case nothing is read
+     */
+    public static void read(ByteBuffer buffer, double[] lefts, double[] rights, int from, int to) {
+        PairSorts.checkRange(lefts.length, rights.length, from, to);
+        if ((long) (to - from) * BYTES > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        for (int i = from; i < to; i++) {
+            lefts[i] = buffer.getDouble();
+            rights[i] = buffer.getDouble();
+        }
+    }
+}
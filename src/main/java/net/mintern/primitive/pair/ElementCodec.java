@@ -0,0 +1,46 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes and decodes the object element of a pair for {@link ObjDoublePairCodec},
+ * {@link ObjLongPairCodec} and {@link ObjIntPairCodec}. An implementation must read exactly the
+ * bytes that it writes, and it decides how, or whether, null is encoded.
+ *
+ * @param <T> the type of the element
+ * @author Brandon Mintern
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Writes an element.
+     *
+     * @param out  the output to write to, not null
+     * @param value  the element to write
+     * @throws IOException if the output cannot be written
+     */
+    void write(DataOutput out, T value) throws IOException;
+
+    /**
+     * Reads an element that was written by {@link #write}.
+     *
+     * @param in  the input to read from, not null
+     * @return the element read
+     * @throws IOException if the input cannot be read
+     */
+    T read(DataInput in) throws IOException;
+}
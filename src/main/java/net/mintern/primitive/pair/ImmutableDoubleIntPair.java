@@ -72,4 +72,13 @@ public final class ImmutableDoubleIntPair extends DoubleIntPair {
     public ImmutablePair<Double, Integer> boxed() {
         return new ImmutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser(Ser.DOUBLE_INT_PAIR, this);
+    }
 }
@@ -71,4 +71,13 @@ public final class ImmutableDoublePair extends DoublePair {
     public ImmutablePair<Double, Double> boxed() {
         return new ImmutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser(Ser.DOUBLE_PAIR, this);
+    }
 }
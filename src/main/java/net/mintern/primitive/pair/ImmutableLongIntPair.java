@@ -16,6 +16,7 @@
  */
 package net.mintern.primitive.pair;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 
 /**
@@ -34,13 +35,42 @@ public final class ImmutableLongIntPair extends LongIntPair {
 
     /**
      * Obtains an immutable pair of the given {@code long} and {@code int} values.
+     * <p>
+     * Pairs whose elements both lie within a small range are cached: like
+     * {@link Integer#valueOf(int)}, this returns the same instance every time it is given the same
+     * such elements. The range is -128 through 127 unless the
+     * {@code net.mintern.primitive.pair.cache.low} and
+     * {@code net.mintern.primitive.pair.cache.high} system properties say otherwise. Other pairs
+     * are new instances, as is any pair created with the constructor, so pairs should still be
+     * compared with {@code equals} rather than {@code ==}.
      *
      * @param left  the left element
      * @param right  the right element
      * @return a pair formed from the two parameters, not null
      */
     public static ImmutableLongIntPair of(long left, int right) {
-        return new ImmutableLongIntPair(left, right);
+        int l = PairCache.offset(left);
+        int r = PairCache.offset(right);
+        if (l < 0 || r < 0) {
+            return new ImmutableLongIntPair(left, right);
+        }
+        int i = l * PairCache.SIDE + r;
+        ImmutableLongIntPair pair = Cache.PAIRS.get(i);
+        if (pair == null) {
+            pair = new ImmutableLongIntPair(left, right);
+            if (!Cache.PAIRS.compareAndSet(i, null, pair)) {
+                pair = Cache.PAIRS.get(i);
+            }
+        }
+        return pair;
+    }
+
+    /**
+     * Holds the cached pairs, which are only allocated when first needed.
+     */
+    private static final class Cache {
+        static final AtomicReferenceArray<ImmutableLongIntPair> PAIRS =
+                new AtomicReferenceArray<>(PairCache.SIDE * PairCache.SIDE);
     }
 
     public final long left;
@@ -71,4 +101,13 @@ public final class ImmutableLongIntPair extends LongIntPair {
     public ImmutablePair<Long, Integer> boxed() {
         return new ImmutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser(Ser.LONG_INT_PAIR, this);
+    }
 }
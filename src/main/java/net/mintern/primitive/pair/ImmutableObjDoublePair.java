@@ -75,4 +75,13 @@ public final class ImmutableObjDoublePair<L> extends ObjDoublePair<L> {
     public ImmutablePair<L, Double> boxed() {
         return new ImmutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser(Ser.OBJ_DOUBLE_PAIR, this);
+    }
 }
@@ -75,4 +75,13 @@ public final class ImmutableObjIntPair<L> extends ObjIntPair<L> {
     public ImmutablePair<L, Integer> boxed() {
         return new ImmutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser(Ser.OBJ_INT_PAIR, this);
+    }
 }
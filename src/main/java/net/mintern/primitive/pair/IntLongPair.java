@@ -16,6 +16,11 @@
  */
 package net.mintern.primitive.pair;
 
+import java.util.Map;
+import net.mintern.primitive.pair.function.IntLongConsumer;
+import net.mintern.primitive.pair.function.IntLongFunction;
+import net.mintern.primitive.pair.function.IntLongPredicate;
+
 /**
  * A pair modeled after {@link org.apache.commons.lang3.tuple.Pair} that consists of a
  * {@code int} and a {@code long} element that allows users to avoid {@code Integer} and
@@ -54,6 +59,73 @@ public abstract class IntLongPair implements PrimitivePair<Integer, Long>, Compa
      */
     public abstract long getRight();
 
+    /**
+     * Gets the left element, boxed as {@code Integer}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getLeft()} to avoid that.
+     *
+     * @return the left element, not null
+     */
+    @Override
+    public Integer getKey() {
+        return getLeft();
+    }
+
+    /**
+     * Gets the right element, boxed as {@code Long}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getRight()} to avoid that.
+     *
+     * @return the right element, not null
+     */
+    @Override
+    public Long getValue() {
+        return getRight();
+    }
+
+    /**
+     * Replaces the right element, as {@link Map.Entry#setValue} requires. Pairs that can be
+     * modified override this; the default implementation throws.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     * @throws UnsupportedOperationException if this pair cannot be modified
+     */
+    @Override
+    public Long setValue(Long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Passes the elements of this pair to an action.
+     *
+     * @param action  the action to perform, not null
+     */
+    public void accept(IntLongConsumer action) {
+        action.accept(getLeft(), getRight());
+    }
+
+    /**
+     * Evaluates a predicate on the elements of this pair.
+     *
+     * @param predicate  the predicate to evaluate, not null
+     * @return the result of the predicate
+     */
+    public boolean test(IntLongPredicate predicate) {
+        return predicate.test(getLeft(), getRight());
+    }
+
+    /**
+     * Applies a function to the elements of this pair.
+     *
+     * @param <T> the result type
+     * @param function  the function to apply, not null
+     * @return the result of the function
+     */
+    public <T> T apply(IntLongFunction<? extends T> function) {
+        return function.apply(getLeft(), getRight());
+    }
+
     /**
      * Compares the pair based on the left element followed by the right element.
      *
@@ -67,7 +139,9 @@ public abstract class IntLongPair implements PrimitivePair<Integer, Long>, Compa
     }
 
     /**
-     * Compares this pair to another based on the two elements.
+     * Compares this pair to another based on the two elements. As {@link Map.Entry#equals}
+     * requires, a pair is also equal to any other entry whose key and value equal its boxed
+     * elements.
      *
      * @param obj  the object to compare to, null returns false
      * @return true if the elements of the pair are equal
@@ -81,6 +155,13 @@ public abstract class IntLongPair implements PrimitivePair<Integer, Long>, Compa
             IntLongPair o = (IntLongPair) obj;
             return getLeft() == o.getLeft() && getRight() == o.getRight();
         }
+        if (obj instanceof Map.Entry<?, ?>) {
+            Map.Entry<?, ?> o = (Map.Entry<?, ?>) obj;
+            Object key = o.getKey();
+            Object value = o.getValue();
+            return key instanceof Integer && (Integer) key == getLeft()
+                    && value instanceof Long && (Long) value == getRight();
+        }
         return false;
     }
 
@@ -0,0 +1,774 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.mintern.primitive.pair.function.IntLongConsumer;
+import net.mintern.primitive.pair.function.IntLongPairBinaryOperator;
+import net.mintern.primitive.pair.function.IntLongPairUnaryOperator;
+import net.mintern.primitive.pair.function.IntLongPredicate;
+import net.mintern.primitive.pair.function.IntLongToDoubleFunction;
+import net.mintern.primitive.pair.function.IntLongToIntFunction;
+import net.mintern.primitive.pair.function.IntLongToLongFunction;
+
+/**
+ * A pipeline of operations over a sequence of {@link IntLongPair}s, in the spirit of
+ * {@code java.util.stream.Stream}, in which every operation receives the two elements of each pair
+ * as primitives. Pairs flow through the pipeline without being created or boxed; only
+ * {@link #map} and {@link #reduce}, whose operators return pairs, may allocate.
+ * <p>
+ * A stream is created over parallel arrays with {@link #of(int[], long[])} or over a
+ * {@link IntLongPairArrayList} with {@link #of(IntLongPairArrayList)}. Intermediate operations such
+ * as {@link #filter} return a new stream and do nothing until a terminal operation such as
+ * {@link #forEach} or {@link #count()} runs. The source is read when the terminal operation runs,
+ * and it must not be modified while it does. A stream may be used for only one terminal operation.
+ * <p>
+ * A stream that is made {@link #parallel()} splits the index range of its source among the tasks
+ * of a {@link ForkJoinPool}. The operations then must be safe to call concurrently, and
+ * {@link #forEach} may visit pairs in any order, although {@link #toList()}, {@link #collect} and
+ * {@link #reduce} still combine their results in encounter order. {@link #sorted()} collects and
+ * sorts the pairs before continuing, in parallel for a parallel stream.
+ * <p>
+ * Not #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public abstract class IntLongPairStream {
+
+    private static final int MIN_PARALLEL_SIZE = 1 << 10;
+
+    /** The execution settings shared by every stage of a pipeline. */
+    final Settings settings;
+
+    IntLongPairStream(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Creates a sequential stream of the pairs stored in two parallel arrays.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @return a new stream, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static IntLongPairStream of(int[] lefts, long[] rights) {
+        if (lefts.length != rights.length) {
+            throw new IllegalArgumentException(
+                    "Array lengths differ: " + lefts.length + ", " + rights.length);
+        }
+        return new ArraySource(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Creates a sequential stream of the pairs at indexes {@code from} (inclusive) to {@code to}
+     * (exclusive) of two parallel arrays.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param from  the index of the first pair
+     * @param to  the index after the last pair
+     * @return a new stream, not null
+     * @throws IndexOutOfBoundsException if the range is out of bounds for either array
+     */
+    public static IntLongPairStream of(int[] lefts, long[] rights, int from, int to) {
+        if (from < 0 || from > to || to > Math.min(lefts.length, rights.length)) {
+            throw new IndexOutOfBoundsException("From: " + from + ", To: " + to
+                    + ", Lengths: " + lefts.length + ", " + rights.length);
+        }
+        return new ArraySource(lefts, rights, from, to - from);
+    }
+
+    /**
+     * Creates a sequential stream of the pairs in a list.
+     *
+     * @param pairs  the list, not null
+     * @return a new stream, not null
+     */
+    public static IntLongPairStream of(final IntLongPairArrayList pairs) {
+        return new IntLongPairStream(new Settings()) {
+            @Override
+            int size() {
+                return pairs.size();
+            }
+
+            @Override
+            boolean push(int from, int to, Sink sink) {
+                for (int i = from; i < to; i++) {
+                    if (!sink.accept(pairs.getLeft(i), pairs.getRight(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Creates an empty sequential stream.
+     *
+     * @return a new stream, not null
+     */
+    public static IntLongPairStream empty() {
+        return new ArraySource(new int[0], new long[0], 0, 0);
+    }
+
+    /**
+     * Gets the number of positions in the source of this stage's segment of the pipeline: the
+     * original source, or the output of the nearest preceding {@link #sorted()}.
+     */
+    abstract int size();
+
+    /**
+     * Pushes the pairs that this stage produces from positions {@code from} (inclusive) to
+     * {@code to} (exclusive) of its segment's source into {@code sink}.
+     *
+     * @return false if the sink asked to stop
+     */
+    abstract boolean push(int from, int to, Sink sink);
+
+    /**
+     * Makes this stream, including the operations before and after this one, run in parallel in a
+     * pool that is shared with the parallel sorts in {@link PairSorts}.
+     *
+     * @return this stream, not null
+     */
+    public IntLongPairStream parallel() {
+        return parallel(PairSorts.DefaultPool.POOL);
+    }
+
+    /**
+     * Makes this stream, including the operations before and after this one, run in parallel in
+     * the given pool.
+     *
+     * @param pool  the pool in which to run, not null
+     * @return this stream, not null
+     */
+    public IntLongPairStream parallel(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("pool");
+        }
+        settings.pool = pool;
+        return this;
+    }
+
+    /**
+     * Makes this stream, including the operations before and after this one, run sequentially in
+     * the calling thread.
+     *
+     * @return this stream, not null
+     */
+    public IntLongPairStream sequential() {
+        settings.pool = null;
+        return this;
+    }
+
+    /**
+     * Determines whether a terminal operation would run in parallel.
+     *
+     * @return true if the stream is parallel
+     */
+    public boolean isParallel() {
+        return settings.pool != null;
+    }
+
+    /**
+     * Returns a stream of the pairs that match a predicate.
+     *
+     * @param predicate  the predicate that pairs must match, not null
+     * @return a new stream, not null
+     */
+    public IntLongPairStream filter(final IntLongPredicate predicate) {
+        return new Stage(this) {
+            @Override
+            boolean push(int from, int to, final Sink sink) {
+                return upstream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        return !predicate.test(left, right) || sink.accept(left, right);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the pairs that result from applying an operator to each pair. Unlike
+     * {@link #mapLeft} and {@link #mapRight}, this creates a pair per element unless the operator
+     * reuses one.
+     *
+     * @param operator  the operator to apply, not null
+     * @return a new stream, not null
+     */
+    public IntLongPairStream map(final IntLongPairUnaryOperator operator) {
+        return new Stage(this) {
+            @Override
+            boolean push(int from, int to, final Sink sink) {
+                return upstream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        IntLongPair result = operator.apply(left, right);
+                        return sink.accept(result.getLeft(), result.getRight());
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of pairs whose left elements are replaced by the result of a function, and
+     * whose right elements are unchanged.
+     *
+     * @param function  the function that computes a new left element from a pair, not null
+     * @return a new stream, not null
+     */
+    public IntLongPairStream mapLeft(final IntLongToIntFunction function) {
+        return new Stage(this) {
+            @Override
+            boolean push(int from, int to, final Sink sink) {
+                return upstream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        return sink.accept(function.applyAsInt(left, right), right);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of pairs whose right elements are replaced by the result of a function, and
+     * whose left elements are unchanged.
+     *
+     * @param function  the function that computes a new right element from a pair, not null
+     * @return a new stream, not null
+     */
+    public IntLongPairStream mapRight(final IntLongToLongFunction function) {
+        return new Stage(this) {
+            @Override
+            boolean push(int from, int to, final Sink sink) {
+                return upstream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        return sink.accept(left, function.applyAsLong(left, right));
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a stream that performs an action on each pair as it passes through, such as for
+     * debugging.
+     *
+     * @param action  the action to perform, not null
+     * @return a new stream, not null
+     */
+    public IntLongPairStream peek(final IntLongConsumer action) {
+        return new Stage(this) {
+            @Override
+            boolean push(int from, int to, final Sink sink) {
+                return upstream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        action.accept(left, right);
+                        return sink.accept(left, right);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the pairs in the order of {@link IntLongPair#compareTo}. The pairs are
+     * collected into primitive columns and sorted with {@link PairSorts} when a terminal operation
+     * runs.
+     *
+     * @return a new stream, not null
+     */
+    public IntLongPairStream sorted() {
+        return new SortedStage(this);
+    }
+
+    /**
+     * Performs an action for each pair. For a parallel stream, the action may be called
+     * concurrently and in any order.
+     *
+     * @param action  the action to perform, not null
+     */
+    public void forEach(final IntLongConsumer action) {
+        evaluate(new Op<Void>() {
+            @Override
+            Void run(IntLongPairStream stream, int from, int to) {
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        action.accept(left, right);
+                        return true;
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            Void combine(Void first, Void second) {
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Counts the pairs.
+     *
+     * @return the number of pairs
+     */
+    public long count() {
+        return evaluate(new Op<Long>() {
+            @Override
+            Long run(IntLongPairStream stream, int from, int to) {
+                final long[] count = new long[1];
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        count[0]++;
+                        return true;
+                    }
+                });
+                return count[0];
+            }
+
+            @Override
+            Long combine(Long first, Long second) {
+                return first + second;
+            }
+        });
+    }
+
+    /**
+     * Determines whether any pair matches a predicate. Pairs are only tested until one matches.
+     *
+     * @param predicate  the predicate to test, not null
+     * @return true if any pair matches, false if none do or the stream is empty
+     */
+    public boolean anyMatch(final IntLongPredicate predicate) {
+        final AtomicBoolean found = new AtomicBoolean();
+        return evaluate(new Op<Boolean>() {
+            @Override
+            Boolean run(IntLongPairStream stream, int from, int to) {
+                if (found.get()) {
+                    return true;
+                }
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        if (predicate.test(left, right)) {
+                            found.set(true);
+                        }
+                        return !found.get();
+                    }
+                });
+                return found.get();
+            }
+
+            @Override
+            Boolean combine(Boolean first, Boolean second) {
+                return first || second;
+            }
+        });
+    }
+
+    /**
+     * Determines whether every pair matches a predicate. Pairs are only tested until one does not
+     * match.
+     *
+     * @param predicate  the predicate to test, not null
+     * @return true if every pair matches or the stream is empty
+     */
+    public boolean allMatch(final IntLongPredicate predicate) {
+        return !anyMatch(new IntLongPredicate() {
+            @Override
+            public boolean test(int left, long right) {
+                return !predicate.test(left, right);
+            }
+        });
+    }
+
+    /**
+     * Determines whether no pair matches a predicate. Pairs are only tested until one matches.
+     *
+     * @param predicate  the predicate to test, not null
+     * @return true if no pair matches or the stream is empty
+     */
+    public boolean noneMatch(IntLongPredicate predicate) {
+        return !anyMatch(predicate);
+    }
+
+    /**
+     * Sums the result of a function of each pair.
+     *
+     * @param function  the function whose results to sum, not null
+     * @return the sum, which overflows silently
+     */
+    public long sumToLong(final IntLongToLongFunction function) {
+        return evaluate(new Op<Long>() {
+            @Override
+            Long run(IntLongPairStream stream, int from, int to) {
+                final long[] sum = new long[1];
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        sum[0] += function.applyAsLong(left, right);
+                        return true;
+                    }
+                });
+                return sum[0];
+            }
+
+            @Override
+            Long combine(Long first, Long second) {
+                return first + second;
+            }
+        });
+    }
+
+    /**
+     * Sums the result of a function of each pair. For a parallel stream, partial sums are added
+     * together, so rounding may differ from that of a sequential sum.
+     *
+     * @param function  the function whose results to sum, not null
+     * @return the sum
+     */
+    public double sumToDouble(final IntLongToDoubleFunction function) {
+        return evaluate(new Op<Double>() {
+            @Override
+            Double run(IntLongPairStream stream, int from, int to) {
+                final double[] sum = new double[1];
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        sum[0] += function.applyAsDouble(left, right);
+                        return true;
+                    }
+                });
+                return sum[0];
+            }
+
+            @Override
+            Double combine(Double first, Double second) {
+                return first + second;
+            }
+        });
+    }
+
+    /**
+     * Combines the pairs with an associative operator, starting from an identity pair. For a
+     * parallel stream, the identity may be combined with several partial results, so it must be an
+     * identity for the operator.
+     *
+     * @param identityLeft  the left element of the identity
+     * @param identityRight  the right element of the identity
+     * @param operator  the operator that combines an intermediate result with a pair, not null
+     * @return the result, not null
+     */
+    public IntLongPair reduce(final int identityLeft, final long identityRight,
+            final IntLongPairBinaryOperator operator) {
+        return evaluate(new Op<IntLongPair>() {
+            @Override
+            IntLongPair run(IntLongPairStream stream, int from, int to) {
+                final IntLongPair[] result = new IntLongPair[1];
+                result[0] = ImmutableIntLongPair.of(identityLeft, identityRight);
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        IntLongPair r = result[0];
+                        result[0] = operator.apply(r.getLeft(), r.getRight(), left, right);
+                        return true;
+                    }
+                });
+                return result[0];
+            }
+
+            @Override
+            IntLongPair combine(IntLongPair first, IntLongPair second) {
+                return operator.apply(
+                        first.getLeft(), first.getRight(), second.getLeft(), second.getRight());
+            }
+        });
+    }
+
+    /**
+     * Accumulates the pairs into mutable containers supplied by a collector. A parallel stream
+     * accumulates each part of the source into its own container and then combines them in
+     * encounter order.
+     *
+     * @param <A> the type of the container
+     * @param collector  the collector, not null
+     * @return the container holding every pair
+     */
+    public <A> A collect(final Collector<A> collector) {
+        return evaluate(new Op<A>() {
+            @Override
+            A run(IntLongPairStream stream, int from, int to) {
+                final A container = collector.supply();
+                stream.push(from, to, new Sink() {
+                    @Override
+                    boolean accept(int left, long right) {
+                        collector.accumulate(container, left, right);
+                        return true;
+                    }
+                });
+                return container;
+            }
+
+            @Override
+            A combine(A first, A second) {
+                return collector.combine(first, second);
+            }
+        });
+    }
+
+    /**
+     * Collects the pairs into a list, in encounter order.
+     *
+     * @return a new list, not null
+     */
+    public IntLongPairArrayList toList() {
+        return collect(LIST_COLLECTOR);
+    }
+
+    private <T> T evaluate(Op<T> op) {
+        int n = size();
+        ForkJoinPool pool = settings.pool;
+        if (pool == null || n < 2 * MIN_PARALLEL_SIZE || pool.getParallelism() <= 1) {
+            return op.run(this, 0, n);
+        }
+        int granularity = Math.max(n / (pool.getParallelism() << 2), MIN_PARALLEL_SIZE);
+        return pool.invoke(new EvaluateTask<>(this, op, 0, n, granularity));
+    }
+
+    /**
+     * Accumulates the pairs of a stream into mutable containers.
+     *
+     * @param <A> the type of the container
+     */
+    public interface Collector<A> {
+
+        /**
+         * Creates an empty container.
+         *
+         * @return a new container
+         */
+        A supply();
+
+        /**
+         * Adds a pair to a container.
+         *
+         * @param container  a container returned by {@link #supply()}
+         * @param left  the left element of the pair
+         * @param right  the right element of the pair
+         */
+        void accumulate(A container, int left, long right);
+
+        /**
+         * Combines two containers, the first of which holds the earlier pairs.
+         *
+         * @param first  the container of the earlier pairs
+         * @param second  the container of the later pairs
+         * @return a container holding the pairs of both, which may be one of the arguments
+         */
+        A combine(A first, A second);
+    }
+
+    private static final Collector<IntLongPairArrayList> LIST_COLLECTOR = new ListCollector();
+
+    /** The settings shared by all of the stages of a pipeline. */
+    static final class Settings {
+
+        /** The pool in which to run, or null to run sequentially. */
+        ForkJoinPool pool;
+    }
+
+    /** Receives the pairs pushed through a pipeline. */
+    abstract static class Sink {
+
+        /**
+         * Receives a pair.
+         *
+         * @return false to stop receiving pairs
+         */
+        abstract boolean accept(int left, long right);
+    }
+
+    /** A stage that transforms the pairs of the stage before it. */
+    abstract static class Stage extends IntLongPairStream {
+
+        final IntLongPairStream upstream;
+
+        Stage(IntLongPairStream upstream) {
+            super(upstream.settings);
+            this.upstream = upstream;
+        }
+
+        @Override
+        int size() {
+            return upstream.size();
+        }
+    }
+
+    private static final class ListCollector implements Collector<IntLongPairArrayList> {
+
+        @Override
+        public IntLongPairArrayList supply() {
+            return new IntLongPairArrayList();
+        }
+
+        @Override
+        public void accumulate(IntLongPairArrayList container, int left, long right) {
+            container.add(left, right);
+        }
+
+        @Override
+        public IntLongPairArrayList combine(IntLongPairArrayList first,
+                IntLongPairArrayList second) {
+            first.ensureCapacity(first.size() + second.size());
+            for (int i = 0, n = second.size(); i < n; i++) {
+                first.add(second.getLeft(i), second.getRight(i));
+            }
+            return first;
+        }
+    }
+
+    private static final class ArraySource extends IntLongPairStream {
+
+        private final int[] lefts;
+        private final long[] rights;
+        private final int offset;
+        private final int length;
+
+        ArraySource(int[] lefts, long[] rights, int offset, int length) {
+            super(new Settings());
+            this.lefts = lefts;
+            this.rights = rights;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        int size() {
+            return length;
+        }
+
+        @Override
+        boolean push(int from, int to, Sink sink) {
+            int[] ls = lefts;
+            long[] rs = rights;
+            for (int i = offset + from, end = offset + to; i < end; i++) {
+                if (!sink.accept(ls[i], rs[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Starts a new segment of the pipeline whose source is the sorted output of the last one. */
+    private static final class SortedStage extends IntLongPairStream {
+
+        private final IntLongPairStream upstream;
+        private int[] lefts;
+        private long[] rights;
+
+        SortedStage(IntLongPairStream upstream) {
+            super(upstream.settings);
+            this.upstream = upstream;
+        }
+
+        @Override
+        int size() {
+            sort();
+            return lefts.length;
+        }
+
+        @Override
+        boolean push(int from, int to, Sink sink) {
+            sort();
+            int[] ls = lefts;
+            long[] rs = rights;
+            for (int i = from; i < to; i++) {
+                if (!sink.accept(ls[i], rs[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private synchronized void sort() {
+            if (lefts == null) {
+                IntLongPairArrayList pairs = upstream.toList();
+                int[] ls = pairs.toLeftArray();
+                long[] rs = pairs.toRightArray();
+                ForkJoinPool pool = settings.pool;
+                if (pool == null) {
+                    PairSorts.sort(ls, rs);
+                } else {
+                    PairSorts.parallelSort(pool, ls, rs, 0, ls.length);
+                }
+                rights = rs;
+                lefts = ls;
+            }
+        }
+    }
+
+    /** A terminal operation that can run over any part of a segment's source. */
+    private abstract static class Op<T> {
+
+        /** Runs over positions {@code from} (inclusive) to {@code to} (exclusive). */
+        abstract T run(IntLongPairStream stream, int from, int to);
+
+        /** Combines the results of two adjacent parts. */
+        abstract T combine(T first, T second);
+    }
+
+    private static final class EvaluateTask<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 1;
+
+        private final IntLongPairStream stream;
+        private final Op<T> op;
+        private final int from;
+        private final int to;
+        private final int granularity;
+
+        EvaluateTask(IntLongPairStream stream, Op<T> op, int from, int to, int granularity) {
+            this.stream = stream;
+            this.op = op;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= granularity) {
+                return op.run(stream, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            EvaluateTask<T> first = new EvaluateTask<>(stream, op, from, mid, granularity);
+            first.fork();
+            T second = new EvaluateTask<>(stream, op, mid, to, granularity).compute();
+            return op.combine(first.join(), second);
+        }
+    }
+}
@@ -16,6 +16,11 @@
  */
 package net.mintern.primitive.pair;
 
+import java.util.Map;
+import net.mintern.primitive.pair.function.IntIntConsumer;
+import net.mintern.primitive.pair.function.IntIntFunction;
+import net.mintern.primitive.pair.function.IntIntPredicate;
+
 /**
  * A pair modeled after {@link org.apache.commons.lang3.tuple.Pair} that consists of {@code int}
  * elements that allows users to avoid {@code Integer} boxing. It refers to the elements as 'left'
@@ -40,6 +45,17 @@ public abstract class IntPair implements PrimitivePair<Integer, Integer>, Compar
         return ImmutableIntPair.of(left, right);
     }
 
+    /**
+     * Obtains an immutable pair from a {@code long} packed by {@link #toPackedLong()}.
+     *
+     * @param packed  the packed pair
+     * @return the unpacked pair, not null
+     * @see PackedPairs#unpack(long)
+     */
+    public static IntPair fromPackedLong(long packed) {
+        return PackedPairs.unpack(packed);
+    }
+
     /**
      * Gets the left element from this pair.
      *
@@ -54,6 +70,85 @@ public abstract class IntPair implements PrimitivePair<Integer, Integer>, Compar
      */
     public abstract int getRight();
 
+    /**
+     * Packs this pair into a single {@code long}, with the left element in the high 32 bits and
+     * the right element in the low 32 bits. Use {@link PackedPairs#packOrdered(IntPair)} instead
+     * for a value that sorts like this pair.
+     *
+     * @return the packed pair
+     * @see PackedPairs#pack(int, int)
+     */
+    public long toPackedLong() {
+        return PackedPairs.pack(getLeft(), getRight());
+    }
+
+    /**
+     * Gets the left element, boxed as {@code Integer}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getLeft()} to avoid that.
+     *
+     * @return the left element, not null
+     */
+    @Override
+    public Integer getKey() {
+        return getLeft();
+    }
+
+    /**
+     * Gets the right element, boxed as {@code Integer}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getRight()} to avoid that.
+     *
+     * @return the right element, not null
+     */
+    @Override
+    public Integer getValue() {
+        return getRight();
+    }
+
+    /**
+     * Replaces the right element, as {@link Map.Entry#setValue} requires. Pairs that can be
+     * modified override this; the default implementation throws.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     * @throws UnsupportedOperationException if this pair cannot be modified
+     */
+    @Override
+    public Integer setValue(Integer value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Passes the elements of this pair to an action.
+     *
+     * @param action  the action to perform, not null
+     */
+    public void accept(IntIntConsumer action) {
+        action.accept(getLeft(), getRight());
+    }
+
+    /**
+     * Evaluates a predicate on the elements of this pair.
+     *
+     * @param predicate  the predicate to evaluate, not null
+     * @return the result of the predicate
+     */
+    public boolean test(IntIntPredicate predicate) {
+        return predicate.test(getLeft(), getRight());
+    }
+
+    /**
+     * Applies a function to the elements of this pair.
+     *
+     * @param <T> the result type
+     * @param function  the function to apply, not null
+     * @return the result of the function
+     */
+    public <T> T apply(IntIntFunction<? extends T> function) {
+        return function.apply(getLeft(), getRight());
+    }
+
     /**
      * Compares the pair based on the left element followed by the right element.
      *
@@ -67,7 +162,9 @@ public abstract class IntPair implements PrimitivePair<Integer, Integer>, Compar
     }
 
     /**
-     * Compares this pair to another based on the two elements.
+     * Compares this pair to another based on the two elements. As {@link Map.Entry#equals}
+     * requires, a pair is also equal to any other entry whose key and value equal its boxed
+     * elements.
      *
      * @param obj  the object to compare to, null returns false
      * @return true if the elements of the pair are equal
@@ -81,6 +178,13 @@ public abstract class IntPair implements PrimitivePair<Integer, Integer>, Compar
             IntPair o = (IntPair) obj;
             return getLeft() == o.getLeft() && getRight() == o.getRight();
         }
+        if (obj instanceof Map.Entry<?, ?>) {
+            Map.Entry<?, ?> o = (Map.Entry<?, ?>) obj;
+            Object key = o.getKey();
+            Object value = o.getValue();
+            return key instanceof Integer && (Integer) key == getLeft()
+                    && value instanceof Integer && (Integer) value == getRight();
+        }
         return false;
     }
 
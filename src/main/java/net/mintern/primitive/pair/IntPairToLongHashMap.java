@@ -0,0 +1,512 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A hash map from {@link IntPair} keys to {@code long} values that stores no key or value
+ * objects. Both {@code int}s of a key are packed into a single {@code long} slot of an
+ * open-addressed table with linear probing, so lookups and updates never allocate.
+ * <p>
+ * By default, keys are hashed with {@link PairHashing#MIXED} rather than with
+ * {@link IntPair#hashCode()}. The latter follows {@link java.util.Map.Entry#hashCode()}, which maps
+ * every {@code (a, a)} key to 0 and {@code (a, b)} and {@code (b, a)} to the same value, causing
+ * heavy clustering for coordinate-like keys. Another {@link PairHashStrategy} may be supplied at
+ * construction.
+ * <p>
+ * Absent keys are reported with a value of {@code 0}, which suits counters; use
+ * {@link #containsKey(int, int)} or {@link #getOrDefault(int, int, long)} to distinguish them.
+ * <p>
+ * Not #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public class IntPairToLongHashMap {
+
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /** The packed form of {@code (0, 0)}, which marks an empty slot in {@link #keys}. */
+    private static final long FREE = 0;
+
+    private final float loadFactor;
+    private final PairHashStrategy strategy;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsFreeKey;
+    private long freeValue;
+
+    /**
+     * Creates an empty map with the default expected size and load factor.
+     */
+    public IntPairToLongHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} entries without resizing.
+     *
+     * @param expectedSize  the number of entries the map is expected to hold
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public IntPairToLongHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} entries without resizing.
+     *
+     * @param expectedSize  the number of entries the map is expected to hold
+     * @param loadFactor  the fraction of the table that may be filled before it grows, in (0, 1)
+     * @throws IllegalArgumentException if {@code expectedSize} is negative or {@code loadFactor}
+     *         is not in (0, 1)
+     */
+    public IntPairToLongHashMap(int expectedSize, float loadFactor) {
+        this(expectedSize, loadFactor, PairHashing.MIXED);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} entries without resizing and that
+     * hashes its keys with the given strategy.
+     *
+     * @param expectedSize  the number of entries the map is expected to hold
+     * @param loadFactor  the fraction of the table that may be filled before it grows, in (0, 1)
+     * @param strategy  the strategy used to hash keys, not null
+     * @throws IllegalArgumentException if {@code expectedSize} is negative or {@code loadFactor}
+     *         is not in (0, 1)
+     */
+    public IntPairToLongHashMap(int expectedSize, float loadFactor, PairHashStrategy strategy) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+        allocate(tableSize(expectedSize, loadFactor));
+    }
+
+    /**
+     * Gets the number of entries in this map.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this map has no entries.
+     *
+     * @return true if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether this map contains an entry for the given key.
+     *
+     * @param left  the left element of the key
+     * @param right  the right element of the key
+     * @return true if the key is present
+     */
+    public boolean containsKey(int left, int right) {
+        long key = PackedPairs.pack(left, right);
+        if (key == FREE) {
+            return containsFreeKey;
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Checks whether this map contains an entry for the given key.
+     *
+     * @param key  the key, not null
+     * @return true if the key is present
+     */
+    public boolean containsKey(IntPair key) {
+        return containsKey(key.getLeft(), key.getRight());
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param left  the left element of the key
+     * @param right  the right element of the key
+     * @return the value, or {@code 0} if the key is not present
+     */
+    public long get(int left, int right) {
+        return getOrDefault(left, right, 0);
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key  the key, not null
+     * @return the value, or {@code 0} if the key is not present
+     */
+    public long get(IntPair key) {
+        return getOrDefault(key.getLeft(), key.getRight(), 0);
+    }
+
+    /**
+     * Gets the value associated with the given key, or the given default if it is not present.
+     *
+     * @param left  the left element of the key
+     * @param right  the right element of the key
+     * @param defaultValue  the value to return if the key is not present
+     * @return the value associated with the key, or {@code defaultValue}
+     */
+    public long getOrDefault(int left, int right, long defaultValue) {
+        long key = PackedPairs.pack(left, right);
+        if (key == FREE) {
+            return containsFreeKey ? freeValue : defaultValue;
+        }
+        int pos = find(key);
+        return pos >= 0 ? values[pos] : defaultValue;
+    }
+
+    /**
+     * Associates a value with the given key, replacing any existing value.
+     *
+     * @param left  the left element of the key
+     * @param right  the right element of the key
+     * @param value  the new value
+     * @return the previous value, or {@code 0} if the key was not present
+     */
+    public long put(int left, int right, long value) {
+        long key = PackedPairs.pack(left, right);
+        if (key == FREE) {
+            long old = containsFreeKey ? freeValue : 0;
+            if (!containsFreeKey) {
+                containsFreeKey = true;
+                size++;
+            }
+            freeValue = value;
+            return old;
+        }
+        int pos = find(key);
+        if (pos >= 0) {
+            long old = values[pos];
+            values[pos] = value;
+            return old;
+        }
+        insert(~pos, key, value);
+        return 0;
+    }
+
+    /**
+     * Associates a value with the given key, replacing any existing value.
+     *
+     * @param key  the key, not null
+     * @param value  the new value
+     * @return the previous value, or {@code 0} if the key was not present
+     */
+    public long put(IntPair key, long value) {
+        return put(key.getLeft(), key.getRight(), value);
+    }
+
+    /**
+     * Adds an increment to the value associated with the given key. An absent key is treated as
+     * having the value {@code 0}, so this can be used directly to maintain counters.
+     *
+     * @param left  the left element of the key
+     * @param right  the right element of the key
+     * @param increment  the amount to add
+     * @return the value associated with the key after the addition
+     */
+    public long addTo(int left, int right, long increment) {
+        long key = PackedPairs.pack(left, right);
+        if (key == FREE) {
+            if (!containsFreeKey) {
+                containsFreeKey = true;
+                size++;
+            }
+            return freeValue += increment;
+        }
+        int pos = find(key);
+        if (pos >= 0) {
+            return values[pos] += increment;
+        }
+        insert(~pos, key, increment);
+        return increment;
+    }
+
+    /**
+     * Removes the entry for the given key, if present.
+     *
+     * @param left  the left element of the key
+     * @param right  the right element of the key
+     * @return the removed value, or {@code 0} if the key was not present
+     */
+    public long remove(int left, int right) {
+        long key = PackedPairs.pack(left, right);
+        if (key == FREE) {
+            if (!containsFreeKey) {
+                return 0;
+            }
+            long old = freeValue;
+            containsFreeKey = false;
+            freeValue = 0;
+            size--;
+            return old;
+        }
+        int pos = find(key);
+        if (pos < 0) {
+            return 0;
+        }
+        long old = values[pos];
+        size--;
+        shiftKeys(pos);
+        return old;
+    }
+
+    /**
+     * Removes all entries from this map. The table keeps its current capacity.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, FREE);
+        containsFreeKey = false;
+        freeValue = 0;
+        size = 0;
+    }
+
+    /**
+     * Obtains a cursor over the entries of this map. The cursor reads directly from the table, so
+     * iterating does not allocate. The map must not be structurally modified while the cursor is
+     * in use, although {@link Cursor#setValue(long)} may be used to update the current entry.
+     *
+     * @return a cursor positioned before the first entry
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns a String representation of this map using the format
+     * {@code {($left,$right)=$value, ...}}.
+     *
+     * @return a string describing this map, not null
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Cursor c = cursor();
+        while (c.next()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append('(').append(c.getLeft()).append(',').append(c.getRight()).append(")=")
+                    .append(c.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * A forward-only cursor over the entries of an {@link IntPairToLongHashMap}.
+     * <p>
+     * Not #ThreadSafe#
+     */
+    public final class Cursor {
+
+        /** The current slot, or {@code keys.length} for the free key entry. */
+        private int pos = -1;
+
+        private Cursor() {}
+
+        /**
+         * Advances to the next entry.
+         *
+         * @return true if the cursor is now positioned at an entry, false if none remain
+         */
+        public boolean next() {
+            int n = keys.length;
+            while (++pos < n) {
+                if (keys[pos] != FREE) {
+                    return true;
+                }
+            }
+            if (pos == n && containsFreeKey) {
+                return true;
+            }
+            pos = n + 1;
+            return false;
+        }
+
+        /**
+         * Gets the left element of the current key.
+         *
+         * @return the left element
+         * @throws NoSuchElementException if the cursor is not positioned at an entry
+         */
+        public int getLeft() {
+            return PackedPairs.unpackLeft(currentKey());
+        }
+
+        /**
+         * Gets the right element of the current key.
+         *
+         * @return the right element
+         * @throws NoSuchElementException if the cursor is not positioned at an entry
+         */
+        public int getRight() {
+            return PackedPairs.unpackRight(currentKey());
+        }
+
+        /**
+         * Gets the value of the current entry.
+         *
+         * @return the value
+         * @throws NoSuchElementException if the cursor is not positioned at an entry
+         */
+        public long getValue() {
+            currentKey();
+            return pos == keys.length ? freeValue : values[pos];
+        }
+
+        /**
+         * Replaces the value of the current entry.
+         *
+         * @param value  the new value
+         * @throws NoSuchElementException if the cursor is not positioned at an entry
+         */
+        public void setValue(long value) {
+            currentKey();
+            if (pos == keys.length) {
+                freeValue = value;
+            } else {
+                values[pos] = value;
+            }
+        }
+
+        private long currentKey() {
+            if (pos < 0 || pos > keys.length) {
+                throw new NoSuchElementException();
+            }
+            return pos == keys.length ? FREE : keys[pos];
+        }
+    }
+
+    private static int tableSize(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / loadFactor);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too large: " + expectedSize);
+        }
+        int n = 2;
+        while (n < needed) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    /**
+     * Finds the home slot of a packed key. The high bits of the hash are folded into the low bits
+     * in case the strategy, like {@link PairHashing#MAP_ENTRY}, does not mix them.
+     */
+    private int slot(long key) {
+        int h = strategy.hash(PackedPairs.unpackLeft(key), PackedPairs.unpackRight(key));
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+
+    /**
+     * Finds the slot holding a non-free key.
+     *
+     * @return the slot index if found, or the bitwise complement of the free slot where the key
+     *         would be inserted
+     */
+    private int find(long key) {
+        long[] k = keys;
+        int pos = slot(key);
+        long curr;
+        while ((curr = k[pos]) != FREE) {
+            if (curr == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return ~pos;
+    }
+
+    private void insert(int pos, long key, long value) {
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size - (containsFreeKey ? 1 : 0) > maxFill) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Map is too large");
+        }
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int pos = slot(key);
+                while (keys[pos] != FREE) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes the key at {@code pos} by shifting later keys in its probe sequence backward, so
+     * that no tombstones are needed.
+     */
+    private void shiftKeys(int pos) {
+        long[] k = keys;
+        for (;;) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long curr;
+            for (;;) {
+                if ((curr = k[pos]) == FREE) {
+                    k[last] = FREE;
+                    return;
+                }
+                int slot = slot(curr);
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            k[last] = curr;
+            values[last] = values[pos];
+        }
+    }
+}
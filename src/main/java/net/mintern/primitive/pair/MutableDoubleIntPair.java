@@ -88,8 +88,30 @@ public class MutableDoubleIntPair extends DoubleIntPair {
         this.right = right;
     }
 
+    /**
+     * Replaces the right element, as {@link java.util.Map.Entry#setValue} requires.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     */
+    @Override
+    public Integer setValue(Integer value) {
+        int old = getRight();
+        setRight(value);
+        return old;
+    }
+
     @Override
     public MutablePair<Double, Integer> boxed() {
         return new MutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser((byte) (Ser.DOUBLE_INT_PAIR | Ser.MUTABLE), this);
+    }
 }
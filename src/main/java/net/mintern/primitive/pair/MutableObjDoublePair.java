@@ -90,8 +90,30 @@ public class MutableObjDoublePair<L> extends ObjDoublePair<L> {
         this.right = right;
     }
 
+    /**
+     * Replaces the right element, as {@link java.util.Map.Entry#setValue} requires.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     */
+    @Override
+    public Double setValue(Double value) {
+        double old = getRight();
+        setRight(value);
+        return old;
+    }
+
     @Override
     public MutablePair<L, Double> boxed() {
         return new MutablePair<>(left, right);
     }
+
+    /**
+     * Replaces this pair with its compact serialized form.
+     *
+     * @return the object to serialize in place of this pair, not null
+     */
+    private Object writeReplace() {
+        return new Ser((byte) (Ser.OBJ_DOUBLE_PAIR | Ser.MUTABLE), this);
+    }
 }
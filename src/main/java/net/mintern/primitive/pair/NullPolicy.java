@@ -0,0 +1,38 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * How a conversion from boxed pairs to primitive pairs treats a pair that is null or that has a
+ * null element, which has no primitive equivalent.
+ *
+ * @author Brandon Mintern
+ * @see IntPairs#fromBoxed(java.util.Collection, NullPolicy)
+ */
+public enum NullPolicy {
+
+    /**
+     * Rejects the pair by throwing a {@link NullPointerException}.
+     */
+    THROW,
+
+    /**
+     * Omits the pair from the result.
+     */
+    SKIP,
+
+    /**
+     * Converts each null element to zero, and a null pair to a pair of zeros.
+     */
+    ZERO
+}
@@ -0,0 +1,92 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes and decodes {@link ObjDoublePair}s without reflection: the left element is encoded by a
+ * pluggable {@link ElementCodec}, and the right element follows it as 8 big-endian bytes, as
+ * in {@link DataOutput#writeDouble}. Decoding fills a caller-supplied {@link MutableObjDoublePair}.
+ * <p>
+ * #ThreadSafe# if the element codec is thread-safe
+ *
+ * @param <L> the left element type
+ * @author Brandon Mintern
+ */
+public final class ObjDoublePairCodec<L> {
+
+    private final ElementCodec<L> leftCodec;
+
+    /**
+     * Creates a codec that uses the given codec for left elements.
+     *
+     * @param leftCodec  the codec for left elements, not null
+     */
+    public ObjDoublePairCodec(ElementCodec<L> leftCodec) {
+        if (leftCodec == null) {
+            throw new NullPointerException("leftCodec");
+        }
+        this.leftCodec = leftCodec;
+    }
+
+    /**
+     * Gets the codec for left elements.
+     *
+     * @return the codec, not null
+     */
+    public ElementCodec<L> leftCodec() {
+        return leftCodec;
+    }
+
+    /**
+     * Writes a pair.
+     *
+     * @param out  the output to write to, not null
+     * @param pair  the pair to write, not null
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out, ObjDoublePair<? extends L> pair) throws IOException {
+        write(out, pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Writes the elements of a pair.
+     *
+     * @param out  the output to write to, not null
+     * @param left  the left element
+     * @param right  the right element
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out, L left, double right) throws IOException {
+        leftCodec.write(out, left);
+        out.writeDouble(right);
+    }
+
+    /**
+     * Reads a pair into {@code reuse}.
+     *
+     * @param in  the input to read from, not null
+     * @param reuse  the pair to fill, not null
+     * @return {@code reuse}
+     * @throws IOException if the input cannot be read
+     */
+    public MutableObjDoublePair<L> read(DataInput in, MutableObjDoublePair<L> reuse)
+            throws IOException {
+        reuse.left = leftCodec.read(in);
+        reuse.right = in.readDouble();
+        return reuse;
+    }
+}
@@ -16,8 +16,13 @@
  */
 package net.mintern.primitive.pair;
 
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Objects;
-import org.apache.commons.lang3.builder.CompareToBuilder;
+import net.mintern.primitive.pair.function.ObjLongConsumer;
+import net.mintern.primitive.pair.function.ObjLongFunction;
+import net.mintern.primitive.pair.function.ObjLongPredicate;
 
 /**
  * A pair modeled after {@link org.apache.commons.lang3.tuple.Pair} that consists of an
@@ -61,21 +66,128 @@ public abstract class ObjLongPair<L> implements PrimitivePair<L, Long>, Comparab
      */
     public abstract long getRight();
 
+    /**
+     * Gets the left element, so that this pair can be used as a {@link Map.Entry} without
+     * converting it.
+     *
+     * @return the left element, may be null
+     */
+    @Override
+    public L getKey() {
+        return getLeft();
+    }
+
+    /**
+     * Gets the right element, boxed as {@code Long}, so that this pair can be used as a
+     * {@link Map.Entry} without converting it. The element is boxed on each call; use
+     * {@link #getRight()} to avoid that.
+     *
+     * @return the right element, not null
+     */
+    @Override
+    public Long getValue() {
+        return getRight();
+    }
+
+    /**
+     * Replaces the right element, as {@link Map.Entry#setValue} requires. Pairs that can be
+     * modified override this; the default implementation throws.
+     *
+     * @param value  the new right element, not null
+     * @return the previous right element
+     * @throws UnsupportedOperationException if this pair cannot be modified
+     */
+    @Override
+    public Long setValue(Long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Passes the elements of this pair to an action.
+     *
+     * @param action  the action to perform, not null
+     */
+    public void accept(ObjLongConsumer<? super L> action) {
+        action.accept(getLeft(), getRight());
+    }
+
+    /**
+     * Evaluates a predicate on the elements of this pair.
+     *
+     * @param predicate  the predicate to evaluate, not null
+     * @return the result of the predicate
+     */
+    public boolean test(ObjLongPredicate<? super L> predicate) {
+        return predicate.test(getLeft(), getRight());
+    }
+
+    /**
+     * Applies a function to the elements of this pair.
+     *
+     * @param <T> the result type
+     * @param function  the function to apply, not null
+     * @return the result of the function
+     */
+    public <T> T apply(ObjLongFunction<? super L, ? extends T> function) {
+        return function.apply(getLeft(), getRight());
+    }
+
+    /**
+     * Obtains a comparator that orders pairs by their left elements using the given comparator,
+     * followed by their right elements.
+     *
+     * @param <L> the left element type
+     * @param leftComparator  the comparator for the left elements, not null
+     * @return a comparator that does not allocate when comparing, not null
+     */
+    public static <L> Comparator<ObjLongPair<L>> comparingLeftThenRight(
+            Comparator<? super L> leftComparator) {
+        return new LeftThenRight<>(Objects.requireNonNull(leftComparator, "leftComparator"));
+    }
+
+    /**
+     * Obtains a comparator that orders pairs by their right elements, followed by their left
+     * elements using the given comparator.
+     *
+     * @param <L> the left element type
+     * @param leftComparator  the comparator for the left elements, not null
+     * @return a comparator that does not allocate when comparing, not null
+     */
+    public static <L> Comparator<ObjLongPair<L>> comparingRightThenLeft(
+            Comparator<? super L> leftComparator) {
+        return new RightThenLeft<>(Objects.requireNonNull(leftComparator, "leftComparator"));
+    }
+
+    /**
+     * Obtains a comparator that orders pairs by their right elements, followed by the natural
+     * ordering of their left elements. As in {@link #compareTo}, a null left element is less than
+     * any other.
+     *
+     * @param <L> the left element type
+     * @return a comparator that does not allocate when comparing, not null
+     */
+    public static <L extends Comparable<? super L>>
+            Comparator<ObjLongPair<L>> comparingRightThenLeft() {
+        return new RightThenLeft<>(null);
+    }
+
     /**
      * Compares the pair based on the left element followed by the right element. The left element
-     * must be {@link Comparable}.
+     * must be {@link Comparable}, and a null left element is less than any other.
      *
      * @param other  the other pair, not null
      * @return negative if this is less, zero if equal, positive if greater
      */
     @Override
     public int compareTo(ObjLongPair<L> other) {
-        return new CompareToBuilder().append(getLeft(), other.getLeft())
-                .append(getRight(), other.getRight()).toComparison();
+        int cmp = Comparisons.compareObjects(getLeft(), other.getLeft());
+        return cmp != 0 ? cmp : Long.compare(getRight(), other.getRight());
     }
 
     /**
-     * Compares this pair to another based on the two elements.
+     * Compares this pair to another based on the two elements. As {@link Map.Entry#equals}
+     * requires, a pair is also equal to any other entry whose key and value equal its boxed
+     * elements.
      *
      * @param obj  the object to compare to, null returns false
      * @return true if the elements of the pair are equal
@@ -89,6 +201,12 @@ public abstract class ObjLongPair<L> implements PrimitivePair<L, Long>, Comparab
             ObjLongPair<?> o = (ObjLongPair<?>) obj;
             return getRight() == o.getRight() && Objects.equals(getLeft(), o.getLeft());
         }
+        if (obj instanceof Map.Entry<?, ?>) {
+            Map.Entry<?, ?> o = (Map.Entry<?, ?>) obj;
+            Object value = o.getValue();
+            return value instanceof Long && (Long) value == getRight()
+                    && Objects.equals(getLeft(), o.getKey());
+        }
         return false;
     }
 
@@ -113,4 +231,45 @@ public abstract class ObjLongPair<L> implements PrimitivePair<L, Long>, Comparab
     public String toString() {
         return "(" + getLeft() + "," + getRight() + ")";
     }
+
+    private static final class LeftThenRight<L>
+            implements Comparator<ObjLongPair<L>>, Serializable {
+
+        private static final long serialVersionUID = 1;
+
+        private final Comparator<? super L> leftComparator;
+
+        LeftThenRight(Comparator<? super L> leftComparator) {
+            this.leftComparator = leftComparator;
+        }
+
+        @Override
+        public int compare(ObjLongPair<L> a, ObjLongPair<L> b) {
+            int cmp = leftComparator.compare(a.getLeft(), b.getLeft());
+            return cmp != 0 ? cmp : Long.compare(a.getRight(), b.getRight());
+        }
+    }
+
+    private static final class RightThenLeft<L>
+            implements Comparator<ObjLongPair<L>>, Serializable {
+
+        private static final long serialVersionUID = 1;
+
+        /** The comparator for the left elements, or null for their natural ordering. */
+        private final Comparator<? super L> leftComparator;
+
+        RightThenLeft(Comparator<? super L> leftComparator) {
+            this.leftComparator = leftComparator;
+        }
+
+        @Override
+        public int compare(ObjLongPair<L> a, ObjLongPair<L> b) {
+            int cmp = Long.compare(a.getRight(), b.getRight());
+            if (cmp != 0) {
+                return cmp;
+            }
+            return leftComparator == null ? Comparisons.compareObjects(a.getLeft(), b.getLeft())
+                    : leftComparator.compare(a.getLeft(), b.getLeft());
+        }
+    }
 }
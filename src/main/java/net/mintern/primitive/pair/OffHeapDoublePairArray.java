@@ -0,0 +1,360 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.Closeable;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.apache.commons.lang3.tuple.MutablePair;
+
+/**
+ * A fixed-size array of {@link DoublePair}s that is stored outside of the Java heap, in direct
+ * {@link ByteBuffer}s. Each pair occupies 16 contiguous bytes, the left element followed by
+ * the right element in the platform's native byte order. An array can also be obtained by mapping
+ * a file with {@link DoublePairFile#map}. Since the garbage collector never scans
+ * or copies this memory, very large arrays do not add to collection pauses.
+ * <p>
+ * Pairs are addressed by {@code long} indexes, so an array may hold more than
+ * {@code Integer.MAX_VALUE} pairs; the memory is allocated in chunks of at most
+ * {@value #CHUNK_SIZE} pairs. A new array is filled with {@code (0.0, 0.0)}.
+ * <p>
+ * The primitive accessors ({@link #getLeft(long)}, {@link #getRight(long)} and
+ * {@link #set(long, double, double)}) never allocate. Code that expects a {@link DoublePair} can be
+ * given a {@link View}, a flyweight that reads and writes the pair at its current index and that
+ * can be moved to another index with {@link View#moveTo(long)}.
+ * <p>
+ * {@link #close()} frees the memory immediately, where the JVM allows it, rather than when the
+ * buffers are garbage collected. Any later access, including through a view, throws
+ * {@link IllegalStateException}.
+ * <p>
+ * Not #ThreadSafe#. In particular, closing the array while another thread accesses it may crash
+ * the JVM.
+ *
+ * @author Brandon Mintern
+ */
+public final class OffHeapDoublePairArray implements Closeable {
+
+    /** The number of bytes occupied by each pair. */
+    public static final int BYTES = 16;
+
+    /** The maximum number of pairs stored in each underlying buffer. */
+    public static final int CHUNK_SIZE = 1 << 26;
+
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final long size;
+    private ByteBuffer[] chunks;
+
+    /**
+     * Allocates an array of {@code size} pairs, each initially {@code (0.0, 0.0)}.
+     *
+     * @param size  the number of pairs
+     * @throws IllegalArgumentException if {@code size} is negative
+     * @throws OutOfMemoryError if the direct memory cannot be allocated
+     */
+    public OffHeapDoublePairArray(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        this.size = size;
+        int n = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+        chunks = new ByteBuffer[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                long pairs = Math.min(CHUNK_SIZE, size - ((long) i << CHUNK_SHIFT));
+                chunks[i] = ByteBuffer.allocateDirect((int) pairs * BYTES)
+                        .order(ByteOrder.nativeOrder());
+            }
+        } catch (OutOfMemoryError e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an array backed by existing buffers, such as the mapped contents of a pair file.
+     * Every buffer except the last must hold exactly {@link #CHUNK_SIZE} pairs.
+     *
+     * @param chunks  the buffers, which become owned by this array; not null
+     */
+    OffHeapDoublePairArray(ByteBuffer[] chunks) {
+        int n = chunks.length;
+        size = n == 0 ? 0 : ((long) (n - 1) << CHUNK_SHIFT) + chunks[n - 1].capacity() / BYTES;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Gets the number of pairs in this array.
+     *
+     * @return the size, which does not change when the array is closed
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets the left element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the left element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public double getLeft(long index) {
+        return chunk(index).getDouble(offset(index));
+    }
+
+    /**
+     * Gets the right element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public double getRight(long index) {
+        return chunk(index).getDouble(offset(index) + 8);
+    }
+
+    /**
+     * Obtains an immutable copy of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @return the pair at {@code index}, not null
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public ImmutableDoublePair get(long index) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        return ImmutableDoublePair.of(chunk.getDouble(offset), chunk.getDouble(offset + 8));
+    }
+
+    /**
+     * Copies the pair at the given position into {@code into}.
+     *
+     * @param index  the index of the pair
+     * @param into  the pair to fill, not null
+     * @return {@code into}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public MutableDoublePair get(long index, MutableDoublePair into) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        into.left = chunk.getDouble(offset);
+        into.right = chunk.getDouble(offset + 8);
+        return into;
+    }
+
+    /**
+     * Replaces the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @param left  the new left element
+     * @param right  the new right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public void set(long index, double left, double right) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        chunk.putDouble(offset, left);
+        chunk.putDouble(offset + 8, right);
+    }
+
+    /**
+     * Replaces the left element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @param left  the new left element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public void setLeft(long index, double left) {
+        chunk(index).putDouble(offset(index), left);
+    }
+
+    /**
+     * Replaces the right element of the pair at the given position.
+     *
+     * @param index  the index of the pair
+     * @param right  the new right element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public void setRight(long index, double right) {
+        chunk(index).putDouble(offset(index) + 8, right);
+    }
+
+    /**
+     * Creates a view of the pair at the given position. The view reads and writes this array, so
+     * it reflects later changes to the pair.
+     *
+     * @param index  the index of the pair
+     * @return a new view positioned at {@code index}, not null
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if this array has been closed
+     */
+    public View view(long index) {
+        View view = new View();
+        view.moveTo(index);
+        return view;
+    }
+
+    /**
+     * Determines whether {@link #close()} has been called.
+     *
+     * @return true if this array has been closed
+     */
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    /**
+     * Frees the memory held by this array. Calling this more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] cs = chunks;
+        if (cs != null) {
+            chunks = null;
+            for (ByteBuffer c: cs) {
+                if (c != null) {
+                    DirectBuffers.free(c);
+                }
+            }
+        }
+    }
+
+    private ByteBuffer chunk(long index) {
+        ByteBuffer[] cs = chunks;
+        if (cs == null) {
+            throw new IllegalStateException("Array is closed");
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return cs[(int) (index >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long index) {
+        return ((int) index & CHUNK_MASK) * BYTES;
+    }
+
+    /**
+     * A mutable {@link DoublePair} that reads and writes the pair at one position of the enclosing
+     * array. Moving the view to another position with {@link #moveTo(long)} lets one instance
+     * stand in for every pair in turn.
+     * <p>
+     * Like other mutable pairs, a view's {@link #hashCode()} changes along with its elements, so
+     * it should not be used as a key in a hash-based collection. A view is serialized as an
+     * {@link ImmutableDoublePair} copy of its current elements.
+     * <p>
+     * Not #ThreadSafe#
+     */
+    public final class View extends DoublePair {
+
+        private static final long serialVersionUID = 1;
+
+        private long index;
+
+        View() {}
+
+        /**
+         * Gets the position in the enclosing array that this view reads and writes.
+         *
+         * @return the index of the current pair
+         */
+        public long index() {
+            return index;
+        }
+
+        /**
+         * Moves this view to another position in the enclosing array.
+         *
+         * @param index  the index of the pair to view
+         * @return this view
+         * @throws IndexOutOfBoundsException if the index is out of range
+         */
+        public View moveTo(long index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            this.index = index;
+            return this;
+        }
+
+        @Override
+        public double getLeft() {
+            return OffHeapDoublePairArray.this.getLeft(index);
+        }
+
+        /**
+         * Sets the left element of the current pair.
+         *
+         * @param left  the new value of the left element
+         */
+        public void setLeft(double left) {
+            OffHeapDoublePairArray.this.setLeft(index, left);
+        }
+
+        @Override
+        public double getRight() {
+            return OffHeapDoublePairArray.this.getRight(index);
+        }
+
+        /**
+         * Sets the right element of the current pair.
+         *
+         * @param right  the new value of the right element
+         */
+        public void setRight(double right) {
+            OffHeapDoublePairArray.this.setRight(index, right);
+        }
+
+        /**
+         * Replaces the right element, as {@link java.util.Map.Entry#setValue} requires.
+         *
+         * @param value  the new right element, not null
+         * @return the previous right element
+         */
+        @Override
+        public Double setValue(Double value) {
+            double old = getRight();
+            setRight(value);
+            return old;
+        }
+
+        /**
+         * Sets both elements of the current pair.
+         *
+         * @param left  the new value of the left element
+         * @param right  the new value of the right element
+         */
+        public void set(double left, double right) {
+            OffHeapDoublePairArray.this.set(index, left, right);
+        }
+
+        @Override
+        public MutablePair<Double, Double> boxed() {
+            return new MutablePair<>(getLeft(), getRight());
+        }
+
+        private Object writeReplace() throws ObjectStreamException {
+            return OffHeapDoublePairArray.this.get(index);
+        }
+    }
+}
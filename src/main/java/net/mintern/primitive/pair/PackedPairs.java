@@ -0,0 +1,223 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * Packs the two {@code int} elements of an {@link IntPair} into a single {@code long} and unpacks
+ * them again, so that pairs can be updated with one compare-and-set, used as one hash key, or
+ * stored in a {@code long[]}.
+ * <p>
+ * There are three encodings, each with its own unpack methods:
+ * <ul>
+ *     <li>{@link #pack} stores the left element in the high 32 bits and the right element in the
+ *     low 32 bits, unchanged. It is the cheapest, but packed values do not sort like pairs.</li>
+ *     <li>{@link #packOrdered} also flips the sign bit of the right element, so that comparing
+ *     packed values as signed {@code long}s, as {@link java.util.Arrays#sort(long[])} and
+ *     {@code Arrays.parallelSort} do, orders them exactly as {@link IntPair#compareTo} orders the
+ *     pairs.</li>
+ *     <li>{@link #packUnsignedOrdered} flips the sign bits of both elements, so that comparing
+ *     packed values as unsigned {@code long}s orders them as {@link IntPair#compareTo} does. This
+ *     suits radix sorts and bitwise tries, which treat keys as unsigned.</li>
+ * </ul>
+ *
+ * @author Brandon Mintern
+ */
+public final class PackedPairs {
+
+    private static final int SIGN = Integer.MIN_VALUE;
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private PackedPairs() {}
+
+    /**
+     * Packs two {@code int}s into a {@code long}, with the left element in the high bits.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the packed pair
+     */
+    public static long pack(int left, int right) {
+        return (long) left << 32 | right & LOW_BITS;
+    }
+
+    /**
+     * Packs an {@link IntPair} into a {@code long}, with the left element in the high bits.
+     *
+     * @param pair  the pair to pack, not null
+     * @return the packed pair
+     * @see #pack(int, int)
+     */
+    public static long pack(IntPair pair) {
+        return pack(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Gets the left element of a pair packed by {@link #pack(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the left element
+     */
+    public static int unpackLeft(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the right element of a pair packed by {@link #pack(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the right element
+     */
+    public static int unpackRight(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Unpacks a pair packed by {@link #pack(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the pair, not null
+     */
+    public static ImmutableIntPair unpack(long packed) {
+        return ImmutableIntPair.of(unpackLeft(packed), unpackRight(packed));
+    }
+
+    /**
+     * Packs two {@code int}s into a {@code long} whose signed order matches
+     * {@link IntPair#compareTo}: for any two pairs {@code a} and {@code b},
+     * {@code Long.compare(packOrdered(a), packOrdered(b))} has the same sign as
+     * {@code a.compareTo(b)}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the packed pair
+     */
+    public static long packOrdered(int left, int right) {
+        return (long) left << 32 | (right ^ SIGN) & LOW_BITS;
+    }
+
+    /**
+     * Packs an {@link IntPair} into a {@code long} whose signed order matches
+     * {@link IntPair#compareTo}.
+     *
+     * @param pair  the pair to pack, not null
+     * @return the packed pair
+     * @see #packOrdered(int, int)
+     */
+    public static long packOrdered(IntPair pair) {
+        return packOrdered(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Gets the left element of a pair packed by {@link #packOrdered(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the left element
+     */
+    public static int unpackOrderedLeft(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the right element of a pair packed by {@link #packOrdered(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the right element
+     */
+    public static int unpackOrderedRight(long packed) {
+        return (int) packed ^ SIGN;
+    }
+
+    /**
+     * Packs two {@code int}s into a {@code long} whose unsigned order matches
+     * {@link IntPair#compareTo}. The result is {@link #packOrdered(int, int)} with its sign bit
+     * flipped.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the packed pair
+     */
+    public static long packUnsignedOrdered(int left, int right) {
+        return packOrdered(left, right) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Packs an {@link IntPair} into a {@code long} whose unsigned order matches
+     * {@link IntPair#compareTo}.
+     *
+     * @param pair  the pair to pack, not null
+     * @return the packed pair
+     * @see #packUnsignedOrdered(int, int)
+     */
+    public static long packUnsignedOrdered(IntPair pair) {
+        return packUnsignedOrdered(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Gets the left element of a pair packed by {@link #packUnsignedOrdered(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the left element
+     */
+    public static int unpackUnsignedOrderedLeft(long packed) {
+        return (int) (packed >>> 32) ^ SIGN;
+    }
+
+    /**
+     * Gets the right element of a pair packed by {@link #packUnsignedOrdered(int, int)}.
+     *
+     * @param packed  the packed pair
+     * @return the right element
+     */
+    public static int unpackUnsignedOrderedRight(long packed) {
+        return (int) packed ^ SIGN;
+    }
+
+    /**
+     * Packs a range of two parallel columns with {@link #packOrdered(int, int)}, so that the
+     * pairs can be sorted with {@link java.util.Arrays#sort(long[])} and then restored with
+     * {@link #unpackOrdered(long[], int[], int[], int)}.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first pair to pack, inclusive
+     * @param toIndex  the index of the last pair to pack, exclusive
+     * @return a new array of {@code toIndex - fromIndex} packed pairs, not null
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is out of bounds for either column
+     */
+    public static long[] packOrdered(int[] lefts, int[] rights, int fromIndex, int toIndex) {
+        PairSorts.checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        long[] packed = new long[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            packed[i - fromIndex] = packOrdered(lefts[i], rights[i]);
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks pairs packed by {@link #packOrdered(int, int)} into two parallel columns.
+     *
+     * @param packed  the packed pairs, not null
+     * @param lefts  the column to fill with left elements, not null
+     * @param rights  the column to fill with right elements, not null
+     * @param destIndex  the index in the columns of the first unpacked pair
+     * @throws ArrayIndexOutOfBoundsException if either column is too short
+     */
+    public static void unpackOrdered(long[] packed, int[] lefts, int[] rights, int destIndex) {
+        PairSorts.checkRange(lefts.length, rights.length, destIndex, destIndex + packed.length);
+        for (int i = 0; i < packed.length; i++) {
+            lefts[destIndex + i] = unpackOrderedLeft(packed[i]);
+            rights[destIndex + i] = unpackOrderedRight(packed[i]);
+        }
+    }
+}
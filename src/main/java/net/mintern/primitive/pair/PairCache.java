@@ -0,0 +1,73 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * The range of element values for which {@link ImmutableIntPair#of},
+ * {@link ImmutableLongIntPair#of} and {@link ImmutableIntLongPair#of} return cached instances, in
+ * the manner of {@link Integer#valueOf(int)}. A pair is cached when both of its elements lie
+ * within the range, which defaults to -128 through 127.
+ * <p>
+ * The range can be changed with the system properties {@value #LOW_PROPERTY} and
+ * {@value #HIGH_PROPERTY}, which are read once, when a pair class first needs its cache. It may
+ * span at most {@value #MAX_SIDE} values; a wider range is narrowed by lowering its upper bound. An
+ * upper bound below the lower bound disables caching. Each shape's cache is an array of
+ * {@code side * side} references, filled as pairs are requested.
+ *
+ * @author Brandon Mintern
+ */
+final class PairCache {
+
+    /** The system property holding the lowest cached element value. */
+    static final String LOW_PROPERTY = "net.mintern.primitive.pair.cache.low";
+
+    /** The system property holding the highest cached element value. */
+    static final String HIGH_PROPERTY = "net.mintern.primitive.pair.cache.high";
+
+    /** The widest range of cached element values, which keeps each cache to a million slots. */
+    static final int MAX_SIDE = 1024;
+
+    /** The lowest cached element value. */
+    static final int LOW;
+
+    /** The number of cached element values, which may be zero. */
+    static final int SIDE;
+
+    static {
+        int low = property(LOW_PROPERTY, -128);
+        long high = property(HIGH_PROPERTY, 127);
+        LOW = low;
+        SIDE = (int) Math.max(0, Math.min(high - low + 1, MAX_SIDE));
+    }
+
+    private PairCache() {}
+
+    /**
+     * Gets the position of an element value within the cached range.
+     *
+     * @param value  the element value
+     * @return the offset of the value from the lowest cached value, or -1 if it is not cached
+     */
+    static int offset(long value) {
+        long offset = value - LOW;
+        return offset >= 0 && offset < SIDE ? (int) offset : -1;
+    }
+
+    private static int property(String name, int defaultValue) {
+        try {
+            return Integer.getInteger(name, defaultValue);
+        } catch (SecurityException e) {
+            return defaultValue;
+        }
+    }
+}
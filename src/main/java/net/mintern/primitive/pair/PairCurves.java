@@ -0,0 +1,434 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps {@link IntPair}s, treated as {@code (x, y)} points, to positions along a space-filling
+ * curve, so that points that are close together in two dimensions tend to be close together in a
+ * one-dimensional order. Sorting or indexing points by their curve keys keeps nearby points in
+ * nearby memory or disk pages, which {@link IntPair#compareTo}'s row-by-row order does not.
+ * <p>
+ * Two curves are supported. The Morton, or Z-order, curve interleaves the bits of {@code x} and
+ * {@code y}, which makes it very cheap to compute. The Hilbert curve costs a loop over the bits,
+ * but it never jumps between distant points, so it preserves locality better and a rectangle
+ * decomposes into fewer key intervals.
+ * <p>
+ * Both curves cover the full range of {@code int} coordinates. The sign bits of the coordinates
+ * are flipped before encoding, and the sign bit of the key is flipped afterwards, so that the
+ * signed order of the {@code long} keys is the order along the curve, just as with
+ * {@link PackedPairs#packOrdered(int, int)}. Keys can therefore be sorted with
+ * {@link Arrays#sort(long[])} and compared with {@code <}, and every point of the curve has exactly
+ * one key.
+ *
+ * @author Brandon Mintern
+ */
+public final class PairCurves {
+
+    private static final int SIGN = Integer.MIN_VALUE;
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private PairCurves() {}
+
+    /**
+     * Computes the Morton, or Z-order, key of a point.
+     *
+     * @param x  the x coordinate
+     * @param y  the y coordinate
+     * @return the position of {@code (x, y)} along the Morton curve
+     */
+    public static long morton(int x, int y) {
+        return Curve.MORTON.encode((x ^ SIGN) & LOW_BITS, (y ^ SIGN) & LOW_BITS) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Computes the Morton key of a pair, taking the left element as {@code x} and the right
+     * element as {@code y}.
+     *
+     * @param point  the point, not null
+     * @return the position of {@code point} along the Morton curve
+     * @see #morton(int, int)
+     */
+    public static long morton(IntPair point) {
+        return morton(point.getLeft(), point.getRight());
+    }
+
+    /**
+     * Gets the {@code x} coordinate of the point with the given Morton key.
+     *
+     * @param key  a key returned by {@link #morton(int, int)}
+     * @return the {@code x} coordinate
+     */
+    public static int mortonX(long key) {
+        return compact(key ^ Long.MIN_VALUE) ^ SIGN;
+    }
+
+    /**
+     * Gets the {@code y} coordinate of the point with the given Morton key.
+     *
+     * @param key  a key returned by {@link #morton(int, int)}
+     * @return the {@code y} coordinate
+     */
+    public static int mortonY(long key) {
+        return compact((key ^ Long.MIN_VALUE) >>> 1) ^ SIGN;
+    }
+
+    /**
+     * Obtains the point with the given Morton key.
+     *
+     * @param key  a key returned by {@link #morton(int, int)}
+     * @return the point as {@code (x, y)}, not null
+     */
+    public static ImmutableIntPair fromMorton(long key) {
+        return ImmutableIntPair.of(mortonX(key), mortonY(key));
+    }
+
+    /**
+     * Computes the Hilbert key of a point.
+     *
+     * @param x  the x coordinate
+     * @param y  the y coordinate
+     * @return the position of {@code (x, y)} along the Hilbert curve
+     */
+    public static long hilbert(int x, int y) {
+        return Curve.HILBERT.encode((x ^ SIGN) & LOW_BITS, (y ^ SIGN) & LOW_BITS) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Computes the Hilbert key of a pair, taking the left element as {@code x} and the right
+     * element as {@code y}.
+     *
+     * @param point  the point, not null
+     * @return the position of {@code point} along the Hilbert curve
+     * @see #hilbert(int, int)
+     */
+    public static long hilbert(IntPair point) {
+        return hilbert(point.getLeft(), point.getRight());
+    }
+
+    /**
+     * Obtains the point with the given Hilbert key.
+     *
+     * @param key  a key returned by {@link #hilbert(int, int)}
+     * @return the point as {@code (x, y)}, not null
+     */
+    public static ImmutableIntPair fromHilbert(long key) {
+        return PackedPairs.unpack(decodeHilbert(key));
+    }
+
+    /**
+     * Copies the point with the given Hilbert key into {@code into}, without allocating.
+     *
+     * @param key  a key returned by {@link #hilbert(int, int)}
+     * @param into  the pair to fill with {@code (x, y)}, not null
+     * @return {@code into}
+     */
+    public static MutableIntPair fromHilbert(long key, MutableIntPair into) {
+        long point = decodeHilbert(key);
+        into.left = PackedPairs.unpackLeft(point);
+        into.right = PackedPairs.unpackRight(point);
+        return into;
+    }
+
+    /**
+     * Sorts two parallel columns of points into Morton order.
+     *
+     * @param xs  the x coordinates, not null
+     * @param ys  the y coordinates, not null
+     * @param fromIndex  the index of the first point to sort, inclusive
+     * @param toIndex  the index of the last point to sort, exclusive
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     */
+    public static void sortByMorton(int[] xs, int[] ys, int fromIndex, int toIndex) {
+        PairSorts.checkRange(xs.length, ys.length, fromIndex, toIndex);
+        long[] keys = new long[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            keys[i - fromIndex] = morton(xs[i], ys[i]);
+        }
+        Arrays.sort(keys);
+        for (int i = fromIndex; i < toIndex; i++) {
+            long key = keys[i - fromIndex];
+            xs[i] = mortonX(key);
+            ys[i] = mortonY(key);
+        }
+    }
+
+    /**
+     * Sorts two parallel columns of points into Hilbert order.
+     *
+     * @param xs  the x coordinates, not null
+     * @param ys  the y coordinates, not null
+     * @param fromIndex  the index of the first point to sort, inclusive
+     * @param toIndex  the index of the last point to sort, exclusive
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     */
+    public static void sortByHilbert(int[] xs, int[] ys, int fromIndex, int toIndex) {
+        PairSorts.checkRange(xs.length, ys.length, fromIndex, toIndex);
+        long[] keys = new long[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            keys[i - fromIndex] = hilbert(xs[i], ys[i]);
+        }
+        Arrays.sort(keys);
+        for (int i = fromIndex; i < toIndex; i++) {
+            long point = decodeHilbert(keys[i - fromIndex]);
+            xs[i] = PackedPairs.unpackLeft(point);
+            ys[i] = PackedPairs.unpackRight(point);
+        }
+    }
+
+    /**
+     * Decomposes a rectangle into the intervals of Morton keys that cover it. Each pair in the
+     * result is an inclusive {@code (first, last)} key interval, and the intervals are sorted and
+     * do not overlap or touch.
+     * <p>
+     * When the exact decomposition would need more than {@code maxRanges} intervals, the curve is
+     * subdivided less finely and the intervals also cover some keys outside of the rectangle, so
+     * a range scan over them must still filter its results.
+     *
+     * @param minX  the smallest x coordinate in the rectangle
+     * @param minY  the smallest y coordinate in the rectangle
+     * @param maxX  the largest x coordinate in the rectangle, inclusive
+     * @param maxY  the largest y coordinate in the rectangle, inclusive
+     * @param maxRanges  the most intervals to return, at least 1
+     * @return the key intervals, not null
+     * @throws IllegalArgumentException if {@code minX > maxX}, {@code minY > maxY} or
+     *      {@code maxRanges < 1}
+     */
+    public static LongPairArrayList mortonRanges(int minX, int minY, int maxX, int maxY,
+            int maxRanges) {
+        return Curve.MORTON.ranges(minX, minY, maxX, maxY, maxRanges);
+    }
+
+    /**
+     * Decomposes a rectangle into the intervals of Hilbert keys that cover it. Each pair in the
+     * result is an inclusive {@code (first, last)} key interval, and the intervals are sorted and
+     * do not overlap or touch.
+     * <p>
+     * When the exact decomposition would need more than {@code maxRanges} intervals, the curve is
+     * subdivided less finely and the intervals also cover some keys outside of the rectangle, so
+     * a range scan over them must still filter its results.
+     *
+     * @param minX  the smallest x coordinate in the rectangle
+     * @param minY  the smallest y coordinate in the rectangle
+     * @param maxX  the largest x coordinate in the rectangle, inclusive
+     * @param maxY  the largest y coordinate in the rectangle, inclusive
+     * @param maxRanges  the most intervals to return, at least 1
+     * @return the key intervals, not null
+     * @throws IllegalArgumentException if {@code minX > maxX}, {@code minY > maxY} or
+     *      {@code maxRanges < 1}
+     */
+    public static LongPairArrayList hilbertRanges(int minX, int minY, int maxX, int maxY,
+            int maxRanges) {
+        return Curve.HILBERT.ranges(minX, minY, maxX, maxY, maxRanges);
+    }
+
+    /**
+     * Decodes a Hilbert key into a point packed by {@link PackedPairs#pack(int, int)}.
+     */
+    private static long decodeHilbert(long key) {
+        long t = key ^ Long.MIN_VALUE;
+        long x = 0;
+        long y = 0;
+        for (long s = 1; s <= LOW_BITS; s <<= 1) {
+            long rx = 1 & t >>> 1;
+            long ry = 1 & (t ^ rx);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                long swap = x;
+                x = y;
+                y = swap;
+            }
+            x += s * rx;
+            y += s * ry;
+            t >>>= 2;
+        }
+        return PackedPairs.pack((int) x ^ SIGN, (int) y ^ SIGN);
+    }
+
+    /**
+     * Spreads the low 32 bits of {@code v} into the even bits of a {@code long}.
+     */
+    private static long spread(long v) {
+        v &= LOW_BITS;
+        v = (v | v << 16) & 0x0000FFFF0000FFFFL;
+        v = (v | v << 8) & 0x00FF00FF00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v << 2) & 0x3333333333333333L;
+        return (v | v << 1) & 0x5555555555555555L;
+    }
+
+    /**
+     * Gathers the even bits of a {@code long} into an {@code int}, undoing {@link #spread}.
+     */
+    private static int compact(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | v >>> 1) & 0x3333333333333333L;
+        v = (v | v >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v >>> 4) & 0x00FF00FF00FF00FFL;
+        v = (v | v >>> 8) & 0x0000FFFF0000FFFFL;
+        return (int) (v | v >>> 16);
+    }
+
+    /**
+     * A curve over unsigned 32-bit coordinates, whose keys are unsigned 64-bit positions.
+     */
+    private enum Curve {
+        MORTON {
+            @Override
+            long encode(long x, long y) {
+                return spread(x) | spread(y) << 1;
+            }
+        },
+        HILBERT {
+            @Override
+            long encode(long x, long y) {
+                long d = 0;
+                for (long s = 1L << 31; s != 0; s >>>= 1) {
+                    long rx = (x & s) != 0 ? 1 : 0;
+                    long ry = (y & s) != 0 ? 1 : 0;
+                    d += s * s * (3 * rx ^ ry);
+                    if (ry == 0) {
+                        if (rx == 1) {
+                            x = LOW_BITS - x;
+                            y = LOW_BITS - y;
+                        }
+                        long swap = x;
+                        x = y;
+                        y = swap;
+                    }
+                }
+                return d;
+            }
+        };
+
+        /**
+         * Computes the unsigned key of a point whose coordinates are in {@code [0, 2^32)}.
+         */
+        abstract long encode(long x, long y);
+
+        /**
+         * Splits the square cells that intersect the rectangle into quadrants, one pass at a
+         * time in curve order, until every cell is inside the rectangle or the budget is spent; a
+         * cell that cannot be split within the budget is kept whole. Both curves visit every
+         * aligned {@code 2^k} square as one contiguous run of {@code 4^k} keys, so each cell is
+         * one key interval whose start is any of its points' keys with the low {@code 2k} bits
+         * cleared.
+         */
+        LongPairArrayList ranges(int minX, int minY, int maxX, int maxY, int maxRanges) {
+            if (minX > maxX || minY > maxY) {
+                throw new IllegalArgumentException("Empty rectangle: (" + minX + "," + minY
+                        + ") to (" + maxX + "," + maxY + ")");
+            }
+            if (maxRanges < 1) {
+                throw new IllegalArgumentException("Illegal maxRanges: " + maxRanges);
+            }
+            long x0 = (minX ^ SIGN) & LOW_BITS;
+            long y0 = (minY ^ SIGN) & LOW_BITS;
+            long x1 = (maxX ^ SIGN) & LOW_BITS;
+            long y1 = (maxY ^ SIGN) & LOW_BITS;
+            List<Cell> cells = new ArrayList<>();
+            cells.add(new Cell(0, 0, 32, 0));
+            boolean refined = true;
+            while (refined) {
+                List<Cell> next = new ArrayList<>();
+                Cell[] children = new Cell[4];
+                int budget = maxRanges - cells.size();
+                refined = false;
+                for (Cell cell: cells) {
+                    if (cell.within(x0, y0, x1, y1)) {
+                        next.add(cell);
+                        continue;
+                    }
+                    int n = 0;
+                    int level = cell.level - 1;
+                    long half = 1L << level;
+                    for (int q = 0; q < 4; q++) {
+                        long cx = cell.x + ((q & 1) == 0 ? 0 : half);
+                        long cy = cell.y + ((q & 2) == 0 ? 0 : half);
+                        if (cx <= x1 && cx + half - 1 >= x0 && cy <= y1 && cy + half - 1 >= y0) {
+                            long start = encode(cx, cy) & ~Cell.span(level);
+                            children[n++] = new Cell(cx, cy, level, start);
+                        }
+                    }
+                    if (n - 1 > budget) {
+                        next.add(cell);
+                        continue;
+                    }
+                    budget -= n - 1;
+                    refined = true;
+                    Arrays.sort(children, 0, n);
+                    next.addAll(Arrays.asList(children).subList(0, n));
+                }
+                cells = next;
+            }
+            LongPairArrayList ranges = new LongPairArrayList(cells.size());
+            Cell head = cells.get(0);
+            long first = head.start;
+            long last = head.start | Cell.span(head.level);
+            for (Cell cell: cells.subList(1, cells.size())) {
+                long end = cell.start | Cell.span(cell.level);
+                if (cell.start != last + 1) {
+                    ranges.add(first ^ Long.MIN_VALUE, last ^ Long.MIN_VALUE);
+                    first = cell.start;
+                }
+                last = end;
+            }
+            ranges.add(first ^ Long.MIN_VALUE, last ^ Long.MIN_VALUE);
+            return ranges;
+        }
+    }
+
+    /**
+     * An aligned square of side {@code 2^level} whose lower corner is {@code (x, y)} and whose
+     * keys start at {@code start}, all unsigned.
+     */
+    private static final class Cell implements Comparable<Cell> {
+
+        final long x;
+        final long y;
+        final int level;
+        final long start;
+
+        Cell(long x, long y, int level, long start) {
+            this.x = x;
+            this.y = y;
+            this.level = level;
+            this.start = start;
+        }
+
+        /**
+         * Gets the mask of the key bits that vary within a cell of the given level.
+         */
+        static long span(int level) {
+            return level == 32 ? -1L : (1L << 2 * level) - 1;
+        }
+
+        boolean within(long x0, long y0, long x1, long y1) {
+            long side = 1L << level;
+            return x >= x0 && x + side - 1 <= x1 && y >= y0 && y + side - 1 <= y1;
+        }
+
+        @Override
+        public int compareTo(Cell other) {
+            return Long.compare(start ^ Long.MIN_VALUE, other.start ^ Long.MIN_VALUE);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes the header of the pair file format shared by {@link LongPairFile} and its
+ * siblings, and maps the pairs that follow it.
+ * <p>
+ * The header occupies {@value #HEADER_BYTES} bytes and is always big-endian:
+ * <pre>
+ * offset  size  field
+ *      0     4  magic number, the ASCII bytes "PAIR"
+ *      4     1  format version, currently 1
+ *      5     1  the {@link PairShape#tag() shape tag}
+ *      6     1  the byte order of the pairs: 0 for big-endian, 1 for little-endian
+ *      7     1  reserved, 0
+ *      8     8  the number of pairs
+ *     16    16  reserved, 0
+ * </pre>
+ * The pairs follow as fixed-width rows of {@link PairShape#bytes()} bytes each, the left element
+ * followed by the right element, which is the same layout as an {@link OffHeapLongPairArray}.
+ *
+ * @author Brandon Mintern
+ */
+final class PairFiles {
+
+    static final int HEADER_BYTES = 32;
+
+    private static final int MAGIC = 0x50414952;
+    private static final byte VERSION = 1;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SHAPE_OFFSET = 5;
+    private static final int ORDER_OFFSET = 6;
+    private static final int COUNT_OFFSET = 8;
+
+    private PairFiles() {}
+
+    /**
+     * Creates or truncates a pair file and writes a placeholder header, to be completed by
+     * {@link #finish} once the number of pairs is known.
+     *
+     * @param file  the file to write, not null
+     * @return a channel positioned after the header
+     * @throws IOException if the file cannot be opened or written
+     */
+    static FileChannel create(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES), 0);
+            channel.position(HEADER_BYTES);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    /**
+     * Writes the pairs in {@code buffer}, from its start to its position, and clears it.
+     *
+     * @param channel  a channel returned by {@link #create}, not null
+     * @param buffer  the buffer to write, not null
+     * @throws IOException if the file cannot be written
+     */
+    static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the complete header of a pair file.
+     *
+     * @param channel  a channel returned by {@link #create}, not null
+     * @param shape  the shape of the pairs, not null
+     * @param order  the byte order of the pairs, not null
+     * @param count  the number of pairs written
+     * @throws IOException if the file cannot be written
+     */
+    static void finish(FileChannel channel, PairShape shape, ByteOrder order, long count)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC)
+                .put(VERSION)
+                .put(shape.tag())
+                .put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 1 : (byte) 0)
+                .put((byte) 0)
+                .putLong(count);
+        header.clear();
+        writeFully(channel, header, 0);
+    }
+
+    /**
+     * Validates the header of a pair file and maps the pairs that follow it as read-only buffers
+     * in the file's byte order. Each buffer holds {@code chunkSize} pairs, except that the last
+     * one may hold fewer.
+     *
+     * @param file  the file to map, not null
+     * @param shape  the expected shape of the pairs, not null
+     * @param chunkSize  the number of pairs per buffer
+     * @return the buffers, which are empty if the file holds no pairs
+     * @throws IOException if the file cannot be read or is not a pair file of the given shape
+     */
+    static ByteBuffer[] map(Path file, PairShape shape, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a pair file: " + file);
+                }
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a pair file: " + file);
+            }
+            byte version = header.get(VERSION_OFFSET);
+            if (version != VERSION) {
+                throw new IOException("Unsupported pair file version " + version + ": " + file);
+            }
+            byte tag = header.get(SHAPE_OFFSET);
+            if (tag != shape.tag()) {
+                throw new IOException("Expected " + shape + " but found shape tag " + tag + ": "
+                        + file);
+            }
+            ByteOrder order;
+            switch (header.get(ORDER_OFFSET)) {
+                case 0:
+                    order = ByteOrder.BIG_ENDIAN;
+                    break;
+                case 1:
+                    order = ByteOrder.LITTLE_ENDIAN;
+                    break;
+                default:
+                    throw new IOException("Illegal byte order: " + file);
+            }
+            long count = header.getLong(COUNT_OFFSET);
+            int bytes = shape.bytes();
+            if (count < 0 || count > (channel.size() - HEADER_BYTES) / bytes) {
+                throw new IOException("Truncated pair file: " + file);
+            }
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((count + chunkSize - 1) / chunkSize)];
+            for (int i = 0; i < chunks.length; i++) {
+                long first = (long) i * chunkSize;
+                long pairs = Math.min(chunkSize, count - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + first * bytes, pairs * bytes).order(order);
+            }
+            return chunks;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * A strategy for hashing the elements of a pair, allowing specialized collections to be configured
+ * with a hash function other than the pairs' own {@code hashCode()}. Equality of the elements is
+ * always determined the same way as by the pair classes; only the hash is pluggable.
+ * <p>
+ * {@link PairHashing#MIXED} and {@link PairHashing#MAP_ENTRY} provide the standard
+ * implementations. Implementations must be #ThreadSafe#.
+ *
+ * @author Brandon Mintern
+ */
+public interface PairHashStrategy {
+
+    /**
+     * Hashes the elements of a {@link DoublePair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(double left, double right);
+
+    /**
+     * Hashes the elements of a {@link DoubleLongPair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(double left, long right);
+
+    /**
+     * Hashes the elements of a {@link DoubleIntPair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(double left, int right);
+
+    /**
+     * Hashes the elements of a {@link LongPair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(long left, long right);
+
+    /**
+     * Hashes the elements of a {@link LongIntPair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(long left, int right);
+
+    /**
+     * Hashes the elements of an {@link IntLongPair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(int left, long right);
+
+    /**
+     * Hashes the elements of an {@link IntPair}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(int left, int right);
+
+    /**
+     * Hashes the elements of an {@link ObjDoublePair}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(Object left, double right);
+
+    /**
+     * Hashes the elements of an {@link ObjLongPair}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(Object left, long right);
+
+    /**
+     * Hashes the elements of an {@link ObjIntPair}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash code
+     */
+    int hash(Object left, int right);
+}
@@ -0,0 +1,520 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.Objects;
+
+/**
+ * Hash functions for the elements of every pair shape that mix all of the input bits.
+ * <p>
+ * The {@code hashCode()} of each pair class follows {@link java.util.Map.Entry#hashCode()}, which
+ * XORs the hashes of the two elements. That is required for compatibility with {@code Map.Entry}
+ * and the Apache Commons pairs, but it hashes every {@code (a, a)} pair to 0 and gives
+ * {@code (a, b)} and {@code (b, a)} the same hash. The functions here avoid both problems by
+ * running the elements through the MurmurHash3 64-bit finalizer. When the two elements fit into 64
+ * bits, as for {@link IntPair}, the 64-bit hash is a bijection, so distinct pairs never collide.
+ * <p>
+ * A {@code double} element is hashed by its {@link Double#doubleToLongBits bits}, consistent with
+ * the {@link Double#compare} equality that the pair classes use in {@code equals}: every
+ * {@code NaN} hashes alike, while {@code 0.0} and {@code -0.0} hash differently.
+ * <p>
+ * Specialized collections accept a {@link PairHashStrategy}; {@link #MIXED} uses these functions,
+ * and {@link #MAP_ENTRY} reproduces the pairs' own {@code hashCode()}.
+ *
+ * @author Brandon Mintern
+ */
+public final class PairHashing {
+
+    /**
+     * A strategy that hashes with the well-mixed functions of this class.
+     */
+    public static final PairHashStrategy MIXED = new Mixed();
+
+    /**
+     * A strategy that hashes the same way as the {@code hashCode()} of the corresponding pair
+     * class, as defined by {@link java.util.Map.Entry#hashCode()}.
+     */
+    public static final PairHashStrategy MAP_ENTRY = new MapEntry();
+
+    private PairHashing() {}
+
+    /**
+     * Computes a well-mixed 64-bit hash of two {@code double}s.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(double left, double right) {
+        return combine(bits(left), bits(right));
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of two {@code double}s.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(double left, double right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(double, double)
+     */
+    public static int hash(DoublePair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of a {@code double} and a {@code long}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(double left, long right) {
+        return combine(bits(left), right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a {@code double} and a {@code long}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(double left, long right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(double, long)
+     */
+    public static int hash(DoubleLongPair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of a {@code double} and an {@code int}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(double left, int right) {
+        return combine(bits(left), right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a {@code double} and an {@code int}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(double left, int right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(double, int)
+     */
+    public static int hash(DoubleIntPair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of two {@code long}s.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(long left, long right) {
+        return combine(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of two {@code long}s.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(long left, long right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(long, long)
+     */
+    public static int hash(LongPair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of a {@code long} and an {@code int}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(long left, int right) {
+        return combine(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a {@code long} and an {@code int}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(long left, int right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(long, int)
+     */
+    public static int hash(LongIntPair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of an {@code int} and a {@code long}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(int left, long right) {
+        return combine(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of an {@code int} and a {@code long}.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(int left, long right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(int, long)
+     */
+    public static int hash(IntLongPair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of two {@code int}s.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(int left, int right) {
+        return mix((long) left << 32 | right & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of two {@code int}s.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(int left, int right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(int, int)
+     */
+    public static int hash(IntPair pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of an {@code Object} and a {@code double}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(Object left, double right) {
+        return combine(Objects.hashCode(left), bits(right));
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of an {@code Object} and a {@code double}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(Object left, double right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(Object, double)
+     */
+    public static int hash(ObjDoublePair<?> pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of an {@code Object} and a {@code long}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(Object left, long right) {
+        return combine(Objects.hashCode(left), right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of an {@code Object} and a {@code long}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(Object left, long right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(Object, long)
+     */
+    public static int hash(ObjLongPair<?> pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of an {@code Object} and an {@code int}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash
+     */
+    public static long hash64(Object left, int right) {
+        return mix((long) Objects.hashCode(left) << 32 | right & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of an {@code Object} and an {@code int}.
+     *
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the hash
+     */
+    public static int hash(Object left, int right) {
+        return (int) hash64(left, right);
+    }
+
+    /**
+     * Computes a well-mixed 32-bit hash of a pair's elements.
+     *
+     * @param pair  the pair, not null
+     * @return the hash
+     * @see #hash(Object, int)
+     */
+    public static int hash(ObjIntPair<?> pair) {
+        return (int) hash64(pair.getLeft(), pair.getRight());
+    }
+
+    /**
+     * Applies the MurmurHash3 64-bit finalizer, a bijection whose every output bit depends on
+     * every input bit.
+     *
+     * @param x  the value to mix
+     * @return the mixed value
+     */
+    static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    private static long combine(long left, long right) {
+        return mix(mix(left) ^ right);
+    }
+
+    private static long bits(double d) {
+        return Double.doubleToLongBits(d);
+    }
+
+    private static final class Mixed implements PairHashStrategy {
+
+        @Override
+        public int hash(double left, double right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(double left, long right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(double left, int right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(long left, long right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(long left, int right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(int left, long right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(int left, int right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(Object left, double right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(Object left, long right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public int hash(Object left, int right) {
+            return PairHashing.hash(left, right);
+        }
+
+        @Override
+        public String toString() {
+            return "PairHashing.MIXED";
+        }
+    }
+
+    private static final class MapEntry implements PairHashStrategy {
+
+        @Override
+        public int hash(double left, double right) {
+            return Double.hashCode(left) ^ Double.hashCode(right);
+        }
+
+        @Override
+        public int hash(double left, long right) {
+            return Double.hashCode(left) ^ Long.hashCode(right);
+        }
+
+        @Override
+        public int hash(double left, int right) {
+            return Double.hashCode(left) ^ Integer.hashCode(right);
+        }
+
+        @Override
+        public int hash(long left, long right) {
+            return Long.hashCode(left) ^ Long.hashCode(right);
+        }
+
+        @Override
+        public int hash(long left, int right) {
+            return Long.hashCode(left) ^ Integer.hashCode(right);
+        }
+
+        @Override
+        public int hash(int left, long right) {
+            return Integer.hashCode(left) ^ Long.hashCode(right);
+        }
+
+        @Override
+        public int hash(int left, int right) {
+            return Integer.hashCode(left) ^ Integer.hashCode(right);
+        }
+
+        @Override
+        public int hash(Object left, double right) {
+            return Objects.hashCode(left) ^ Double.hashCode(right);
+        }
+
+        @Override
+        public int hash(Object left, long right) {
+            return Objects.hashCode(left) ^ Long.hashCode(right);
+        }
+
+        @Override
+        public int hash(Object left, int right) {
+            return Objects.hashCode(left) ^ Integer.hashCode(right);
+        }
+
+        @Override
+        public String toString() {
+            return "PairHashing.MAP_ENTRY";
+        }
+    }
+}
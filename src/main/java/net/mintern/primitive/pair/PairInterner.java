@@ -0,0 +1,1056 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Maps pairs to canonical immutable instances, so that equal pairs can share one object and be
+ * compared by identity. Each pair shape has an {@code intern} method that takes the two elements
+ * directly, which allocates only when the pair is seen for the first time, and another that takes
+ * an existing pair.
+ * <p>
+ * The table is split into independently locked segments, chosen by {@link PairHashing} hash. Each
+ * segment is an open-addressed table that is read without locking, so repeated lookups of pairs
+ * that are already canonical never block; a lock is taken only to insert a new pair. Lookups
+ * compare the primitive elements of candidate pairs directly rather than creating a key and
+ * calling {@link Object#equals(Object) equals}. {@code double} elements are compared by their
+ * {@link Double#doubleToLongBits bits}, so {@code NaN} interns to a single pair while {@code 0.0}
+ * and {@code -0.0} remain distinct.
+ * <p>
+ * With {@link Strength#WEAK weak} references, canonical pairs that are no longer referenced
+ * elsewhere may be garbage collected, after which an equal pair interns to a new instance. With
+ * {@link Strength#STRONG strong} references, every interned pair is retained until
+ * {@link #clear()}.
+ * <p>
+ * #ThreadSafe#
+ *
+ * @author Brandon Mintern
+ */
+public final class PairInterner {
+
+    /**
+     * How an interner refers to its canonical pairs.
+     */
+    public enum Strength {
+        /**
+         * Canonical pairs are weakly referenced, so the interner does not keep them alive.
+         */
+        WEAK,
+        /**
+         * Canonical pairs are strongly referenced and retained until the interner is cleared.
+         */
+        STRONG
+    }
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Strength strength;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    /**
+     * Creates an interner that refers to its canonical pairs weakly.
+     */
+    public PairInterner() {
+        this(Strength.WEAK);
+    }
+
+    /**
+     * Creates an interner with the given reference strength.
+     *
+     * @param strength  how the canonical pairs are referenced, not null
+     */
+    public PairInterner(Strength strength) {
+        this(strength, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates an interner with the given reference strength and concurrency level.
+     *
+     * @param strength  how the canonical pairs are referenced, not null
+     * @param concurrencyLevel  the expected number of threads inserting pairs concurrently; the
+     *      table is split into this many independently locked segments, rounded up to a power of
+     *      two
+     * @throws IllegalArgumentException if {@code concurrencyLevel} is not positive
+     */
+    public PairInterner(Strength strength, int concurrencyLevel) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Illegal concurrency level: " + concurrencyLevel);
+        }
+        this.strength = Objects.requireNonNull(strength, "strength");
+        int shift = 0;
+        while (shift < 16 && 1 << shift < concurrencyLevel) {
+            shift++;
+        }
+        segments = new Segment[Math.min(1 << shift, MAX_SEGMENTS)];
+        segmentShift = 32 - shift;
+        segmentMask = segments.length - 1;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(strength == Strength.WEAK);
+        }
+    }
+
+    /**
+     * Gets how this interner refers to its canonical pairs.
+     *
+     * @return the reference strength, not null
+     */
+    public Strength strength() {
+        return strength;
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableDoublePair intern(double left, double right) {
+        return internDoublePair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableDoublePair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableDoublePair intern(DoublePair pair) {
+        return internDoublePair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableDoublePair internDoublePair(
+            double left, double right, DoublePair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableDoublePair found = findDoublePair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findDoublePair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableDoublePair
+                            ? (ImmutableDoublePair) given
+                            : ImmutableDoublePair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableDoublePair findDoublePair(
+            AtomicReferenceArray<Object> table, int hash, double left, double right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableDoublePair) {
+                ImmutableDoublePair p = (ImmutableDoublePair) o;
+                if (Double.doubleToLongBits(p.left) == Double.doubleToLongBits(left)
+                        && Double.doubleToLongBits(p.right) == Double.doubleToLongBits(right)) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableDoubleLongPair intern(double left, long right) {
+        return internDoubleLongPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableDoubleLongPair}, and an immutable copy becomes
+     * canonical otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableDoubleLongPair intern(DoubleLongPair pair) {
+        return internDoubleLongPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableDoubleLongPair internDoubleLongPair(
+            double left, long right, DoubleLongPair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableDoubleLongPair found = findDoubleLongPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findDoubleLongPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableDoubleLongPair
+                            ? (ImmutableDoubleLongPair) given
+                            : ImmutableDoubleLongPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableDoubleLongPair findDoubleLongPair(
+            AtomicReferenceArray<Object> table, int hash, double left, long right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableDoubleLongPair) {
+                ImmutableDoubleLongPair p = (ImmutableDoubleLongPair) o;
+                if (Double.doubleToLongBits(p.left) == Double.doubleToLongBits(left)
+                        && p.right == right) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableDoubleIntPair intern(double left, int right) {
+        return internDoubleIntPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableDoubleIntPair}, and an immutable copy becomes
+     * canonical otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableDoubleIntPair intern(DoubleIntPair pair) {
+        return internDoubleIntPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableDoubleIntPair internDoubleIntPair(
+            double left, int right, DoubleIntPair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableDoubleIntPair found = findDoubleIntPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findDoubleIntPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableDoubleIntPair
+                            ? (ImmutableDoubleIntPair) given
+                            : ImmutableDoubleIntPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableDoubleIntPair findDoubleIntPair(
+            AtomicReferenceArray<Object> table, int hash, double left, int right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableDoubleIntPair) {
+                ImmutableDoubleIntPair p = (ImmutableDoubleIntPair) o;
+                if (Double.doubleToLongBits(p.left) == Double.doubleToLongBits(left)
+                        && p.right == right) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableLongPair intern(long left, long right) {
+        return internLongPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableLongPair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableLongPair intern(LongPair pair) {
+        return internLongPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableLongPair internLongPair(
+            long left, long right, LongPair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableLongPair found = findLongPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findLongPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableLongPair
+                            ? (ImmutableLongPair) given
+                            : ImmutableLongPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableLongPair findLongPair(
+            AtomicReferenceArray<Object> table, int hash, long left, long right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableLongPair) {
+                ImmutableLongPair p = (ImmutableLongPair) o;
+                if (p.left == left
+                        && p.right == right) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableLongIntPair intern(long left, int right) {
+        return internLongIntPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableLongIntPair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableLongIntPair intern(LongIntPair pair) {
+        return internLongIntPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableLongIntPair internLongIntPair(
+            long left, int right, LongIntPair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableLongIntPair found = findLongIntPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findLongIntPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableLongIntPair
+                            ? (ImmutableLongIntPair) given
+                            : ImmutableLongIntPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableLongIntPair findLongIntPair(
+            AtomicReferenceArray<Object> table, int hash, long left, int right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableLongIntPair) {
+                ImmutableLongIntPair p = (ImmutableLongIntPair) o;
+                if (p.left == left
+                        && p.right == right) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableIntLongPair intern(int left, long right) {
+        return internIntLongPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableIntLongPair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableIntLongPair intern(IntLongPair pair) {
+        return internIntLongPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableIntLongPair internIntLongPair(
+            int left, long right, IntLongPair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableIntLongPair found = findIntLongPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findIntLongPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableIntLongPair
+                            ? (ImmutableIntLongPair) given
+                            : ImmutableIntLongPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableIntLongPair findIntLongPair(
+            AtomicReferenceArray<Object> table, int hash, int left, long right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableIntLongPair) {
+                ImmutableIntLongPair p = (ImmutableIntLongPair) o;
+                if (p.left == left
+                        && p.right == right) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public ImmutableIntPair intern(int left, int right) {
+        return internIntPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableIntPair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public ImmutableIntPair intern(IntPair pair) {
+        return internIntPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private ImmutableIntPair internIntPair(
+            int left, int right, IntPair given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableIntPair found = findIntPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findIntPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableIntPair
+                            ? (ImmutableIntPair) given
+                            : ImmutableIntPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    private static ImmutableIntPair findIntPair(
+            AtomicReferenceArray<Object> table, int hash, int left, int right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableIntPair) {
+                ImmutableIntPair p = (ImmutableIntPair) o;
+                if (p.left == left
+                        && p.right == right) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet. The left element of the returned pair is equal to {@code left}, but it is not
+     * necessarily the same instance.
+     *
+     * @param <L>  the left element type
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public <L> ImmutableObjDoublePair<L> intern(L left, double right) {
+        return internObjDoublePair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableObjDoublePair}, and an immutable copy becomes
+     * canonical otherwise.
+     *
+     * @param <L>  the left element type
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public <L> ImmutableObjDoublePair<L> intern(ObjDoublePair<L> pair) {
+        return internObjDoublePair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private <L> ImmutableObjDoublePair<L> internObjDoublePair(
+            L left, double right, ObjDoublePair<L> given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableObjDoublePair<L> found = findObjDoublePair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findObjDoublePair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableObjDoublePair
+                            ? (ImmutableObjDoublePair<L>) given
+                            : ImmutableObjDoublePair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L> ImmutableObjDoublePair<L> findObjDoublePair(
+            AtomicReferenceArray<Object> table, int hash, L left, double right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableObjDoublePair) {
+                ImmutableObjDoublePair<?> p = (ImmutableObjDoublePair<?>) o;
+                if (Double.doubleToLongBits(p.right) == Double.doubleToLongBits(right)
+                        && Objects.equals(p.left, left)) {
+                    return (ImmutableObjDoublePair<L>) p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet. The left element of the returned pair is equal to {@code left}, but it is not
+     * necessarily the same instance.
+     *
+     * @param <L>  the left element type
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public <L> ImmutableObjLongPair<L> intern(L left, long right) {
+        return internObjLongPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableObjLongPair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param <L>  the left element type
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public <L> ImmutableObjLongPair<L> intern(ObjLongPair<L> pair) {
+        return internObjLongPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private <L> ImmutableObjLongPair<L> internObjLongPair(
+            L left, long right, ObjLongPair<L> given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableObjLongPair<L> found = findObjLongPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findObjLongPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableObjLongPair
+                            ? (ImmutableObjLongPair<L>) given
+                            : ImmutableObjLongPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L> ImmutableObjLongPair<L> findObjLongPair(
+            AtomicReferenceArray<Object> table, int hash, L left, long right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableObjLongPair) {
+                ImmutableObjLongPair<?> p = (ImmutableObjLongPair<?>) o;
+                if (p.right == right
+                        && Objects.equals(p.left, left)) {
+                    return (ImmutableObjLongPair<L>) p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the canonical pair of the given elements, creating it only if no equal pair has been
+     * interned yet. The left element of the returned pair is equal to {@code left}, but it is not
+     * necessarily the same instance.
+     *
+     * @param <L>  the left element type
+     * @param left  the left element, may be null
+     * @param right  the right element
+     * @return the canonical {@code (left, right)} pair, not null
+     */
+    public <L> ImmutableObjIntPair<L> intern(L left, int right) {
+        return internObjIntPair(left, right, null);
+    }
+
+    /**
+     * Obtains the canonical pair equal to the given one. If there is none yet, {@code pair} becomes
+     * canonical when it is an {@link ImmutableObjIntPair}, and an immutable copy becomes canonical
+     * otherwise.
+     *
+     * @param <L>  the left element type
+     * @param pair  the pair to intern, not null
+     * @return the canonical pair equal to {@code pair}, not null
+     */
+    public <L> ImmutableObjIntPair<L> intern(ObjIntPair<L> pair) {
+        return internObjIntPair(pair.getLeft(), pair.getRight(), pair);
+    }
+
+    private <L> ImmutableObjIntPair<L> internObjIntPair(
+            L left, int right, ObjIntPair<L> given) {
+        int hash = PairHashing.hash(left, right);
+        Segment segment = segmentFor(hash);
+        ImmutableObjIntPair<L> found = findObjIntPair(segment.table, hash, left, right);
+        if (found == null) {
+            synchronized (segment) {
+                found = findObjIntPair(segment.table, hash, left, right);
+                if (found == null) {
+                    found = given instanceof ImmutableObjIntPair
+                            ? (ImmutableObjIntPair<L>) given
+                            : ImmutableObjIntPair.of(left, right);
+                    segment.insert(hash, found);
+                    return found;
+                }
+            }
+        }
+        segment.hit();
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L> ImmutableObjIntPair<L> findObjIntPair(
+            AtomicReferenceArray<Object> table, int hash, L left, int right) {
+        int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object o = table.get(i);
+            if (o == null) {
+                return null;
+            }
+            if (o instanceof WeakPair) {
+                WeakPair ref = (WeakPair) o;
+                if (ref.hash != hash) {
+                    continue;
+                }
+                o = ref.get();
+            }
+            if (o instanceof ImmutableObjIntPair) {
+                ImmutableObjIntPair<?> p = (ImmutableObjIntPair<?>) o;
+                if (p.right == right
+                        && Objects.equals(p.left, left)) {
+                    return (ImmutableObjIntPair<L>) p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the canonical pairs currently held. With weak references, pairs that have been
+     * garbage collected are not counted. The result is only an estimate while other threads are
+     * interning pairs.
+     *
+     * @return the number of canonical pairs
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment: segments) {
+            AtomicReferenceArray<Object> table = segment.table;
+            for (int i = 0, n = table.length(); i < n; i++) {
+                Object o = table.get(i);
+                if (o != null && (!(o instanceof WeakPair) || ((WeakPair) o).get() != null)) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all canonical pairs. Pairs interned afterwards become new canonical instances, even
+     * if they are equal to pairs that were interned before. The statistics are not reset.
+     */
+    public void clear() {
+        for (Segment segment: segments) {
+            synchronized (segment) {
+                segment.table = new AtomicReferenceArray<>(MIN_CAPACITY);
+                segment.used = 0;
+            }
+        }
+    }
+
+    /**
+     * Counts the {@code intern} calls that found an existing canonical pair.
+     *
+     * @return the number of hits
+     */
+    public long hitCount() {
+        long hits = 0;
+        for (Segment segment: segments) {
+            hits += segment.hits;
+        }
+        return hits;
+    }
+
+    /**
+     * Counts the {@code intern} calls that made a new canonical pair.
+     *
+     * @return the number of misses
+     */
+    public long missCount() {
+        long misses = 0;
+        for (Segment segment: segments) {
+            misses += segment.misses;
+        }
+        return misses;
+    }
+
+    /**
+     * Gets the fraction of {@code intern} calls that found an existing canonical pair.
+     *
+     * @return the hit rate between 0.0 and 1.0, or 1.0 if nothing has been interned yet
+     */
+    public double hitRate() {
+        long hits = hitCount();
+        long requests = hits + missCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "PairInterner[" + strength + ", hits=" + hitCount() + ", misses=" + missCount()
+                + "]";
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> segmentShift) & segmentMask];
+    }
+
+    private static int hashOf(Object pair) {
+        if (pair instanceof ImmutableDoublePair) {
+            return PairHashing.hash((ImmutableDoublePair) pair);
+        }
+        if (pair instanceof ImmutableDoubleLongPair) {
+            return PairHashing.hash((ImmutableDoubleLongPair) pair);
+        }
+        if (pair instanceof ImmutableDoubleIntPair) {
+            return PairHashing.hash((ImmutableDoubleIntPair) pair);
+        }
+        if (pair instanceof ImmutableLongPair) {
+            return PairHashing.hash((ImmutableLongPair) pair);
+        }
+        if (pair instanceof ImmutableLongIntPair) {
+            return PairHashing.hash((ImmutableLongIntPair) pair);
+        }
+        if (pair instanceof ImmutableIntLongPair) {
+            return PairHashing.hash((ImmutableIntLongPair) pair);
+        }
+        if (pair instanceof ImmutableIntPair) {
+            return PairHashing.hash((ImmutableIntPair) pair);
+        }
+        if (pair instanceof ImmutableObjDoublePair) {
+            return PairHashing.hash((ImmutableObjDoublePair<?>) pair);
+        }
+        if (pair instanceof ImmutableObjLongPair) {
+            return PairHashing.hash((ImmutableObjLongPair<?>) pair);
+        }
+        if (pair instanceof ImmutableObjIntPair) {
+            return PairHashing.hash((ImmutableObjIntPair<?>) pair);
+        }
+        throw new AssertionError(pair);
+    }
+
+    /**
+     * A weakly referenced canonical pair, which remembers its hash so that lookups can skip it
+     * without dereferencing it and so that the table can be rebuilt after it is cleared.
+     */
+    private static final class WeakPair extends WeakReference<Object> {
+
+        final int hash;
+
+        WeakPair(Object pair, int hash) {
+            super(pair);
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * One lock stripe of the interner: a linear-probing table whose slots hold either canonical
+     * pairs or {@link WeakPair}s. Slots are only ever filled, or refilled after their weak pair is
+     * cleared, while holding the segment's lock; lookups that miss retry under the lock, so a
+     * reader that races with an insertion or a rebuild at worst takes the slower path.
+     */
+    private static final class Segment {
+
+        private static final AtomicLongFieldUpdater<Segment> HITS =
+                AtomicLongFieldUpdater.newUpdater(Segment.class, "hits");
+
+        final boolean weak;
+        volatile AtomicReferenceArray<Object> table = new AtomicReferenceArray<>(MIN_CAPACITY);
+        /** The number of non-null slots, including cleared weak pairs. Guarded by this. */
+        int used;
+        volatile long hits;
+        volatile long misses;
+
+        Segment(boolean weak) {
+            this.weak = weak;
+        }
+
+        void hit() {
+            HITS.incrementAndGet(this);
+        }
+
+        /**
+         * Adds a canonical pair that is known to be absent. Must be called while holding the lock.
+         */
+        void insert(int hash, Object pair) {
+            misses++;
+            AtomicReferenceArray<Object> t = table;
+            if (used >= t.length() - (t.length() >>> 2)) {
+                t = rebuild(t);
+            }
+            Object entry = weak ? new WeakPair(pair, hash) : pair;
+            int mask = t.length() - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                Object o = t.get(i);
+                if (o == null) {
+                    used++;
+                    t.set(i, entry);
+                    return;
+                }
+                if (o instanceof WeakPair && ((WeakPair) o).get() == null) {
+                    t.set(i, entry);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Copies the live pairs into a new table that is at most half full after the next
+         * insertion, dropping cleared weak pairs. The old table is left untouched for concurrent
+         * readers.
+         */
+        private AtomicReferenceArray<Object> rebuild(AtomicReferenceArray<Object> old) {
+            int live = 0;
+            for (int i = 0, n = old.length(); i < n; i++) {
+                Object o = old.get(i);
+                if (o != null && (!(o instanceof WeakPair) || ((WeakPair) o).get() != null)) {
+                    live++;
+                }
+            }
+            int capacity = MIN_CAPACITY;
+            while (capacity < MAX_CAPACITY && capacity >>> 1 <= live) {
+                capacity <<= 1;
+            }
+            AtomicReferenceArray<Object> t = new AtomicReferenceArray<>(capacity);
+            int mask = capacity - 1;
+            used = 0;
+            for (int i = 0, n = old.length(); i < n; i++) {
+                Object o = old.get(i);
+                int hash;
+                if (o == null) {
+                    continue;
+                } else if (o instanceof WeakPair) {
+                    if (((WeakPair) o).get() == null) {
+                        continue;
+                    }
+                    hash = ((WeakPair) o).hash;
+                } else {
+                    hash = hashOf(o);
+                }
+                int j = hash & mask;
+                while (t.get(j) != null) {
+                    j = (j + 1) & mask;
+                }
+                t.set(j, o);
+                used++;
+            }
+            table = t;
+            return t;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * The element types of a primitive pair, as recorded in binary formats such as the pair files
+ * written by {@link LongPairFile} and its siblings. Each shape has a stable one-byte tag that
+ * identifies it in those formats.
+ *
+ * @author Brandon Mintern
+ */
+public enum PairShape {
+
+    /** A {@link DoublePair}. */
+    DOUBLE_PAIR(1, 8, 8),
+    /** A {@link DoubleLongPair}. */
+    DOUBLE_LONG_PAIR(2, 8, 8),
+    /** A {@link DoubleIntPair}. */
+    DOUBLE_INT_PAIR(3, 8, 4),
+    /** A {@link LongPair}. */
+    LONG_PAIR(4, 8, 8),
+    /** A {@link LongIntPair}. */
+    LONG_INT_PAIR(5, 8, 4),
+    /** An {@link IntLongPair}. */
+    INT_LONG_PAIR(6, 4, 8),
+    /** An {@link IntPair}. */
+    INT_PAIR(7, 4, 4);
+
+    private static final PairShape[] BY_TAG = new PairShape[8];
+
+    static {
+        for (PairShape shape: values()) {
+            BY_TAG[shape.tag] = shape;
+        }
+    }
+
+    private final byte tag;
+    private final int leftBytes;
+    private final int rightBytes;
+
+    private PairShape(int tag, int leftBytes, int rightBytes) {
+        this.tag = (byte) tag;
+        this.leftBytes = leftBytes;
+        this.rightBytes = rightBytes;
+    }
+
+    /**
+     * Obtains the shape with the given tag.
+     *
+     * @param tag  a value returned by {@link #tag()}
+     * @return the shape, not null
+     * @throws IllegalArgumentException if no shape has the given tag
+     */
+    public static PairShape forTag(byte tag) {
+        PairShape shape = tag > 0 && tag < BY_TAG.length ? BY_TAG[tag] : null;
+        if (shape == null) {
+            throw new IllegalArgumentException("Unknown pair shape tag: " + tag);
+        }
+        return shape;
+    }
+
+    /**
+     * Gets the tag that identifies this shape in binary formats. Tags never change.
+     *
+     * @return the tag, which is positive
+     */
+    public byte tag() {
+        return tag;
+    }
+
+    /**
+     * Gets the number of bytes in the left element.
+     *
+     * @return 4 or 8
+     */
+    public int leftBytes() {
+        return leftBytes;
+    }
+
+    /**
+     * Gets the number of bytes in the right element.
+     *
+     * @return 4 or 8
+     */
+    public int rightBytes() {
+        return rightBytes;
+    }
+
+    /**
+     * Gets the number of bytes in a pair of this shape, with no padding between the elements.
+     *
+     * @return the sum of {@link #leftBytes()} and {@link #rightBytes()}
+     */
+    public int bytes() {
+        return leftBytes + rightBytes;
+    }
+}
@@ -0,0 +1,3110 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts pairs that are stored as two parallel primitive arrays, or columns, without creating any
+ * pair objects. Each {@code sort} method orders the pairs exactly as the {@code compareTo} method
+ * of the corresponding pair class does: lexicographically by the left element and then the right
+ * element, using {@link Double#compare} for {@code double} elements.
+ * <p>
+ * The integral shapes also provide a {@code radixSort}, which trades O(n) temporary memory for
+ * linear running time. It tends to win on large arrays of {@code int}-based pairs, or when many
+ * high-order bits are shared by all of the pairs; wide, random {@code long} pairs need more passes
+ * and may sort faster with {@code sort}. The benchmarks compare the two.
+ * <p>
+ * For very large arrays, {@code parallelSort} spreads the work across a {@link ForkJoinPool}.
+ *
+ * @author Brandon Mintern
+ */
+public final class PairSorts {
+
+    /** Ranges smaller than this are sorted with insertion sort. */
+    private static final int INSERTION_SORT_THRESHOLD = 47;
+
+    /** Ranges smaller than this are never radix sorted. */
+    static final int RADIX_SORT_THRESHOLD = 1 << 10;
+
+    /** Ranges smaller than this are never sorted in parallel. */
+    static final int MIN_PARALLEL_SORT_SIZE = 1 << 13;
+
+    private static final int DIGIT_BITS = 11;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    private PairSorts() {}
+
+    /**
+     * Holds the pool used by parallel sorts and parallel pair streams that are not given one,
+     * which is only created when first needed.
+     */
+    static final class DefaultPool {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link DoublePair#compareTo}:
+     * by the left element, then by the right element. Element {@code i} of both arrays is
+     * treated as the pair {@code (lefts[i], rights[i])}, and both arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(double[] lefts, double[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoublePair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(double[], double[])
+     */
+    public static void sort(double[] lefts, double[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link DoublePair#compareTo},
+     * using multiple threads for large arrays. This is a parallel merge sort that splits the
+     * columns into chunks, sorts each chunk with {@link #sort(double[], double[], int, int)}, and
+     * merges the results in parallel. It allocates temporary columns as large as the input. Arrays
+     * of fewer than {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(double[] lefts, double[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoublePair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(double[], double[])
+     */
+    public static void parallelSort(double[] lefts, double[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoublePair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(double[], double[])
+     */
+    public static void parallelSort(ForkJoinPool pool, double[] lefts, double[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new DoublePairSortTask(lefts, rights, new double[n], new double[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by
+     * {@link DoubleLongPair#compareTo}: by the left element, then by the right element. Element
+     * {@code i} of both arrays is treated as the pair {@code (lefts[i], rights[i])}, and both
+     * arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(double[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoubleLongPair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(double[], long[])
+     */
+    public static void sort(double[] lefts, long[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by
+     * {@link DoubleLongPair#compareTo}, using multiple threads for large arrays. This is a parallel
+     * merge sort that splits the columns into chunks, sorts each chunk with
+     * {@link #sort(double[], long[], int, int)}, and merges the results in parallel. It allocates
+     * temporary columns as large as the input. Arrays of fewer than
+     * {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(double[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoubleLongPair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(double[], long[])
+     */
+    public static void parallelSort(double[] lefts, long[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoubleLongPair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(double[], long[])
+     */
+    public static void parallelSort(ForkJoinPool pool, double[] lefts, long[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new DoubleLongPairSortTask(lefts, rights, new double[n], new long[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by
+     * {@link DoubleIntPair#compareTo}: by the left element, then by the right element. Element
+     * {@code i} of both arrays is treated as the pair {@code (lefts[i], rights[i])}, and both
+     * arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(double[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoubleIntPair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(double[], int[])
+     */
+    public static void sort(double[] lefts, int[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by
+     * {@link DoubleIntPair#compareTo}, using multiple threads for large arrays. This is a parallel
+     * merge sort that splits the columns into chunks, sorts each chunk with
+     * {@link #sort(double[], int[], int, int)}, and merges the results in parallel. It allocates
+     * temporary columns as large as the input. Arrays of fewer than
+     * {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(double[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoubleIntPair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(double[], int[])
+     */
+    public static void parallelSort(double[] lefts, int[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link DoubleIntPair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(double[], int[])
+     */
+    public static void parallelSort(ForkJoinPool pool, double[] lefts, int[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new DoubleIntPairSortTask(lefts, rights, new double[n], new int[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link LongPair#compareTo}:
+     * by the left element, then by the right element. Element {@code i} of both arrays is
+     * treated as the pair {@code (lefts[i], rights[i])}, and both arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(long[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongPair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(long[], long[])
+     */
+    public static void sort(long[] lefts, long[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link LongPair#compareTo},
+     * using multiple threads for large arrays. This is a parallel merge sort that splits the
+     * columns into chunks, sorts each chunk with {@link #sort(long[], long[], int, int)}, and
+     * merges the results in parallel. It allocates temporary columns as large as the input. Arrays
+     * of fewer than {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(long[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongPair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(long[], long[])
+     */
+    public static void parallelSort(long[] lefts, long[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongPair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(long[], long[])
+     */
+    public static void parallelSort(ForkJoinPool pool, long[] lefts, long[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new LongPairSortTask(lefts, rights, new long[n], new long[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link LongPair#compareTo}
+     * using a least-significant-digit radix sort.
+     * <p>
+     * The sort makes one linear pass per 11-bit digit of the right and then the left elements,
+     * skipping digits that are the same in every pair, so it runs in O(n) time. It allocates
+     * temporary columns as large as the input, however, and for small arrays it is slower than
+     * {@link #sort(long[], long[])}, which it delegates to below {@value #RADIX_SORT_THRESHOLD}
+     * elements.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void radixSort(long[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        radixSort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongPair#compareTo} using a least-significant-digit radix sort.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #radixSort(long[], long[])
+     */
+    public static void radixSort(long[] lefts, long[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < RADIX_SORT_THRESHOLD) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        long[] l = Arrays.copyOfRange(lefts, fromIndex, toIndex);
+        long[] r = Arrays.copyOfRange(rights, fromIndex, toIndex);
+        long[] lTmp = new long[n];
+        long[] rTmp = new long[n];
+        int[] offsets = new int[RADIX];
+        for (int shift = 0; shift < 64; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(r[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(r[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                long[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                long[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        for (int shift = 0; shift < 64; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(l[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(l[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                long[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                long[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        System.arraycopy(l, 0, lefts, fromIndex, n);
+        System.arraycopy(r, 0, rights, fromIndex, n);
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link LongIntPair#compareTo}:
+     * by the left element, then by the right element. Element {@code i} of both arrays is
+     * treated as the pair {@code (lefts[i], rights[i])}, and both arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(long[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongIntPair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(long[], int[])
+     */
+    public static void sort(long[] lefts, int[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link LongIntPair#compareTo},
+     * using multiple threads for large arrays. This is a parallel merge sort that splits the
+     * columns into chunks, sorts each chunk with {@link #sort(long[], int[], int, int)}, and merges
+     * the results in parallel. It allocates temporary columns as large as the input. Arrays of
+     * fewer than {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(long[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongIntPair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(long[], int[])
+     */
+    public static void parallelSort(long[] lefts, int[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongIntPair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(long[], int[])
+     */
+    public static void parallelSort(ForkJoinPool pool, long[] lefts, int[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new LongIntPairSortTask(lefts, rights, new long[n], new int[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link LongIntPair#compareTo}
+     * using a least-significant-digit radix sort.
+     * <p>
+     * The sort makes one linear pass per 11-bit digit of the right and then the left elements,
+     * skipping digits that are the same in every pair, so it runs in O(n) time. It allocates
+     * temporary columns as large as the input, however, and for small arrays it is slower than
+     * {@link #sort(long[], int[])}, which it delegates to below {@value #RADIX_SORT_THRESHOLD}
+     * elements.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void radixSort(long[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        radixSort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link LongIntPair#compareTo} using a least-significant-digit radix sort.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #radixSort(long[], int[])
+     */
+    public static void radixSort(long[] lefts, int[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < RADIX_SORT_THRESHOLD) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        long[] l = Arrays.copyOfRange(lefts, fromIndex, toIndex);
+        int[] r = Arrays.copyOfRange(rights, fromIndex, toIndex);
+        long[] lTmp = new long[n];
+        int[] rTmp = new int[n];
+        int[] offsets = new int[RADIX];
+        for (int shift = 0; shift < 32; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(r[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(r[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                long[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                int[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        for (int shift = 0; shift < 64; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(l[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(l[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                long[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                int[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        System.arraycopy(l, 0, lefts, fromIndex, n);
+        System.arraycopy(r, 0, rights, fromIndex, n);
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link IntLongPair#compareTo}:
+     * by the left element, then by the right element. Element {@code i} of both arrays is
+     * treated as the pair {@code (lefts[i], rights[i])}, and both arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(int[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntLongPair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(int[], long[])
+     */
+    public static void sort(int[] lefts, long[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link IntLongPair#compareTo},
+     * using multiple threads for large arrays. This is a parallel merge sort that splits the
+     * columns into chunks, sorts each chunk with {@link #sort(int[], long[], int, int)}, and merges
+     * the results in parallel. It allocates temporary columns as large as the input. Arrays of
+     * fewer than {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(int[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntLongPair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(int[], long[])
+     */
+    public static void parallelSort(int[] lefts, long[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntLongPair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(int[], long[])
+     */
+    public static void parallelSort(ForkJoinPool pool, int[] lefts, long[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new IntLongPairSortTask(lefts, rights, new int[n], new long[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link IntLongPair#compareTo}
+     * using a least-significant-digit radix sort.
+     * <p>
+     * The sort makes one linear pass per 11-bit digit of the right and then the left elements,
+     * skipping digits that are the same in every pair, so it runs in O(n) time. It allocates
+     * temporary columns as large as the input, however, and for small arrays it is slower than
+     * {@link #sort(int[], long[])}, which it delegates to below {@value #RADIX_SORT_THRESHOLD}
+     * elements.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void radixSort(int[] lefts, long[] rights) {
+        checkLengths(lefts.length, rights.length);
+        radixSort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntLongPair#compareTo} using a least-significant-digit radix sort.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #radixSort(int[], long[])
+     */
+    public static void radixSort(int[] lefts, long[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < RADIX_SORT_THRESHOLD) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        int[] l = Arrays.copyOfRange(lefts, fromIndex, toIndex);
+        long[] r = Arrays.copyOfRange(rights, fromIndex, toIndex);
+        int[] lTmp = new int[n];
+        long[] rTmp = new long[n];
+        int[] offsets = new int[RADIX];
+        for (int shift = 0; shift < 64; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(r[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(r[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                int[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                long[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        for (int shift = 0; shift < 32; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(l[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(l[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                int[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                long[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        System.arraycopy(l, 0, lefts, fromIndex, n);
+        System.arraycopy(r, 0, rights, fromIndex, n);
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link IntPair#compareTo}:
+     * by the left element, then by the right element. Element {@code i} of both arrays is
+     * treated as the pair {@code (lefts[i], rights[i])}, and both arrays are permuted together.
+     * <p>
+     * This is a dual-pivot quicksort that falls back to heapsort if its recursion grows too
+     * deep, so it runs in O(n log n) time and sorts in place.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(int[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        sort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntPair#compareTo}. Only the elements from {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive, are sorted.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #sort(int[], int[])
+     */
+    public static void sort(int[] lefts, int[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link IntPair#compareTo},
+     * using multiple threads for large arrays. This is a parallel merge sort that splits the
+     * columns into chunks, sorts each chunk with {@link #sort(int[], int[], int, int)}, and merges
+     * the results in parallel. It allocates temporary columns as large as the input. Arrays of
+     * fewer than {@value #MIN_PARALLEL_SORT_SIZE} elements are sorted sequentially.
+     * <p>
+     * The work is done in a {@link ForkJoinPool} that is shared by all of the parallel sorts and
+     * has one thread per available processor.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(int[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        parallelSort(DefaultPool.POOL, lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntPair#compareTo}, using multiple threads for large ranges.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(int[], int[])
+     */
+    public static void parallelSort(int[] lefts, int[] rights, int fromIndex, int toIndex) {
+        parallelSort(DefaultPool.POOL, lefts, rights, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntPair#compareTo}, using the threads of the given pool for large ranges.
+     *
+     * @param pool  the pool in which to sort, not null
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #parallelSort(int[], int[])
+     */
+    public static void parallelSort(ForkJoinPool pool, int[] lefts, int[] rights,
+            int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        int granularity = granularity(pool, n);
+        if (granularity >= n) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        pool.invoke(new IntPairSortTask(lefts, rights, new int[n], new int[n],
+                fromIndex, fromIndex, toIndex, granularity, true));
+    }
+
+    /**
+     * Sorts two parallel columns into the ascending order defined by {@link IntPair#compareTo}
+     * using a least-significant-digit radix sort.
+     * <p>
+     * The sort makes one linear pass per 11-bit digit of the right and then the left elements,
+     * skipping digits that are the same in every pair, so it runs in O(n) time. It allocates
+     * temporary columns as large as the input, however, and for small arrays it is slower than
+     * {@link #sort(int[], int[])}, which it delegates to below {@value #RADIX_SORT_THRESHOLD}
+     * elements.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void radixSort(int[] lefts, int[] rights) {
+        checkLengths(lefts.length, rights.length);
+        radixSort(lefts, rights, 0, lefts.length);
+    }
+
+    /**
+     * Sorts a range of two parallel columns into the ascending order defined by
+     * {@link IntPair#compareTo} using a least-significant-digit radix sort.
+     *
+     * @param lefts  the left elements, not null
+     * @param rights  the right elements, not null
+     * @param fromIndex  the index of the first element to sort
+     * @param toIndex  the index after the last element to sort
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if the range is outside of either array
+     * @see #radixSort(int[], int[])
+     */
+    public static void radixSort(int[] lefts, int[] rights, int fromIndex, int toIndex) {
+        checkRange(lefts.length, rights.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex;
+        if (n < RADIX_SORT_THRESHOLD) {
+            quicksort(lefts, rights, fromIndex, toIndex - 1, depthLimit(n));
+            return;
+        }
+        int[] l = Arrays.copyOfRange(lefts, fromIndex, toIndex);
+        int[] r = Arrays.copyOfRange(rights, fromIndex, toIndex);
+        int[] lTmp = new int[n];
+        int[] rTmp = new int[n];
+        int[] offsets = new int[RADIX];
+        for (int shift = 0; shift < 32; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(r[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(r[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                int[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                int[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        for (int shift = 0; shift < 32; shift += DIGIT_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < n; i++) {
+                offsets[digit(l[i], shift)]++;
+            }
+            if (toOffsets(offsets, n)) {
+                for (int i = 0; i < n; i++) {
+                    int dst = offsets[digit(l[i], shift)]++;
+                    lTmp[dst] = l[i];
+                    rTmp[dst] = r[i];
+                }
+                int[] lSwap = l;
+                l = lTmp;
+                lTmp = lSwap;
+                int[] rSwap = r;
+                r = rTmp;
+                rTmp = rSwap;
+            }
+        }
+        System.arraycopy(l, 0, lefts, fromIndex, n);
+        System.arraycopy(r, 0, rights, fromIndex, n);
+    }
+
+    private static void checkLengths(int leftLength, int rightLength) {
+        if (leftLength != rightLength) {
+            throw new IllegalArgumentException(
+                    "Columns have different lengths: " + leftLength + " and " + rightLength);
+        }
+    }
+
+    static void checkRange(int leftLength, int rightLength, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException(
+                    "fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (toIndex > leftLength || toIndex > rightLength) {
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+        }
+    }
+
+    /**
+     * Determines the size of the chunks that a parallel sort sorts or merges sequentially,
+     * aiming for four chunks per thread. A result of at least {@code n} means that the range
+     * should not be sorted in parallel at all.
+     */
+    private static int granularity(ForkJoinPool pool, int n) {
+        int parallelism = pool.getParallelism();
+        if (n < MIN_PARALLEL_SORT_SIZE || parallelism <= 1) {
+            return n;
+        }
+        return Math.max(n / (parallelism << 2), MIN_PARALLEL_SORT_SIZE);
+    }
+
+    /**
+     * Determines how deep quicksort may recurse before switching to heapsort.
+     */
+    private static int depthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(n));
+    }
+
+    private static int digit(int value, int shift) {
+        return (value ^ Integer.MIN_VALUE) >>> shift & DIGIT_MASK;
+    }
+
+    private static int digit(long value, int shift) {
+        return (int) ((value ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK;
+    }
+
+    /**
+     * Converts digit counts into the offset at which each digit's elements start.
+     *
+     * @return false if every element has the same digit, so that the pass can be skipped
+     */
+    private static boolean toOffsets(int[] counts, int n) {
+        int offset = 0;
+        for (int d = 0; d < counts.length; d++) {
+            int count = counts[d];
+            if (count == n) {
+                return false;
+            }
+            counts[d] = offset;
+            offset += count;
+        }
+        return true;
+    }
+
+    private static boolean less(double al, double ar, double bl, double br) {
+        int cmp = Double.compare(al, bl);
+        return cmp < 0 || cmp == 0 && Double.compare(ar, br) < 0;
+    }
+
+    private static void swap(double[] lefts, double[] rights, int i, int j) {
+        double l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        double r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(double[] a, double[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            double p1l = a[lo];
+            double p1r = b[lo];
+            double p2l = a[hi];
+            double p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(double[] a, double[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(double[] a, double[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double l = a[i];
+            double r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(double[] a, double[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, double[] b, int lo, int i, int n) {
+        double l = a[lo + i];
+        double r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    private static boolean less(double al, long ar, double bl, long br) {
+        int cmp = Double.compare(al, bl);
+        return cmp < 0 || cmp == 0 && ar < br;
+    }
+
+    private static void swap(double[] lefts, long[] rights, int i, int j) {
+        double l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        long r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(double[] a, long[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            double p1l = a[lo];
+            long p1r = b[lo];
+            double p2l = a[hi];
+            long p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(double[] a, long[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(double[] a, long[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double l = a[i];
+            long r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(double[] a, long[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, long[] b, int lo, int i, int n) {
+        double l = a[lo + i];
+        long r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    private static boolean less(double al, int ar, double bl, int br) {
+        int cmp = Double.compare(al, bl);
+        return cmp < 0 || cmp == 0 && ar < br;
+    }
+
+    private static void swap(double[] lefts, int[] rights, int i, int j) {
+        double l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        int r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(double[] a, int[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            double p1l = a[lo];
+            int p1r = b[lo];
+            double p2l = a[hi];
+            int p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(double[] a, int[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(double[] a, int[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double l = a[i];
+            int r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(double[] a, int[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int[] b, int lo, int i, int n) {
+        double l = a[lo + i];
+        int r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    private static boolean less(long al, long ar, long bl, long br) {
+        return al < bl || al == bl && ar < br;
+    }
+
+    private static void swap(long[] lefts, long[] rights, int i, int j) {
+        long l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        long r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(long[] a, long[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            long p1l = a[lo];
+            long p1r = b[lo];
+            long p2l = a[hi];
+            long p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(long[] a, long[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(long[] a, long[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long l = a[i];
+            long r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(long[] a, long[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, long[] b, int lo, int i, int n) {
+        long l = a[lo + i];
+        long r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    private static boolean less(long al, int ar, long bl, int br) {
+        return al < bl || al == bl && ar < br;
+    }
+
+    private static void swap(long[] lefts, int[] rights, int i, int j) {
+        long l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        int r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(long[] a, int[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            long p1l = a[lo];
+            int p1r = b[lo];
+            long p2l = a[hi];
+            int p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(long[] a, int[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(long[] a, int[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long l = a[i];
+            int r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(long[] a, int[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int[] b, int lo, int i, int n) {
+        long l = a[lo + i];
+        int r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    private static boolean less(int al, long ar, int bl, long br) {
+        return al < bl || al == bl && ar < br;
+    }
+
+    private static void swap(int[] lefts, long[] rights, int i, int j) {
+        int l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        long r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(int[] a, long[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            int p1l = a[lo];
+            long p1r = b[lo];
+            int p2l = a[hi];
+            long p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(int[] a, long[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(int[] a, long[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int l = a[i];
+            long r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(int[] a, long[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, long[] b, int lo, int i, int n) {
+        int l = a[lo + i];
+        long r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    private static boolean less(int al, int ar, int bl, int br) {
+        return al < bl || al == bl && ar < br;
+    }
+
+    private static void swap(int[] lefts, int[] rights, int i, int j) {
+        int l = lefts[i];
+        lefts[i] = lefts[j];
+        lefts[j] = l;
+        int r = rights[i];
+        rights[i] = rights[j];
+        rights[j] = r;
+    }
+
+    private static void quicksort(int[] a, int[] b, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (--depth < 0) {
+                heapsort(a, b, lo, hi);
+                return;
+            }
+            // Sort five evenly spaced elements and use the second and fourth as pivots.
+            int len = hi - lo + 1;
+            int seventh = (len >> 3) + (len >> 6) + 1;
+            int e3 = (lo + hi) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            sortSample(a, b, e2, e3);
+            sortSample(a, b, e1, e2);
+            sortSample(a, b, e4, e5);
+            sortSample(a, b, e3, e4);
+            swap(a, b, lo, e2);
+            swap(a, b, hi, e4);
+            int p1l = a[lo];
+            int p1r = b[lo];
+            int p2l = a[hi];
+            int p2r = b[hi];
+
+            // Partition into [lo + 1, lt) < p1 <= [lt, k) <= p2 < (gt, hi - 1].
+            int lt = lo + 1;
+            int gt = hi - 1;
+            for (int k = lt; k <= gt; k++) {
+                if (less(a[k], b[k], p1l, p1r)) {
+                    swap(a, b, k, lt++);
+                } else if (less(p2l, p2r, a[k], b[k])) {
+                    while (k < gt && less(p2l, p2r, a[gt], b[gt])) {
+                        gt--;
+                    }
+                    swap(a, b, k, gt--);
+                    if (less(a[k], b[k], p1l, p1r)) {
+                        swap(a, b, k, lt++);
+                    }
+                }
+            }
+            swap(a, b, lo, lt - 1);
+            swap(a, b, hi, gt + 1);
+
+            quicksort(a, b, lo, lt - 2, depth);
+            if (less(p1l, p1r, p2l, p2r)) {
+                quicksort(a, b, lt, gt, depth);
+            }
+            lo = gt + 2;
+        }
+        insertionSort(a, b, lo, hi);
+    }
+
+    private static void sortSample(int[] a, int[] b, int i, int j) {
+        if (less(a[j], b[j], a[i], b[i])) {
+            swap(a, b, i, j);
+        }
+    }
+
+    private static void insertionSort(int[] a, int[] b, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int l = a[i];
+            int r = b[i];
+            int j = i - 1;
+            while (j >= lo && less(l, r, a[j], b[j])) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = l;
+            b[j + 1] = r;
+        }
+    }
+
+    private static void heapsort(int[] a, int[] b, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, b, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, b, lo, lo + end);
+            siftDown(a, b, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int[] b, int lo, int i, int n) {
+        int l = a[lo + i];
+        int r = b[lo + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(a[lo + child], b[lo + child], a[lo + child + 1],
+                    b[lo + child + 1])) {
+                child++;
+            }
+            if (!less(l, r, a[lo + child], b[lo + child])) {
+                break;
+            }
+            a[lo + i] = a[lo + child];
+            b[lo + i] = b[lo + child];
+            i = child;
+        }
+        a[lo + i] = l;
+        b[lo + i] = r;
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class DoublePairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] a;
+        private final double[] b;
+        private final double[] wa;
+        private final double[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        DoublePairSortTask(double[] a, double[] b, double[] wa, double[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new DoublePairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new DoublePairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new DoublePairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new DoublePairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class DoublePairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] sa;
+        private final double[] sb;
+        private final int srcOffset;
+        private final double[] da;
+        private final double[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        DoublePairMergeTask(double[] sa, double[] sb, int srcOffset, double[] da, double[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            double pl = sa[m1];
+            double pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new DoublePairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new DoublePairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class DoubleLongPairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] a;
+        private final long[] b;
+        private final double[] wa;
+        private final long[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        DoubleLongPairSortTask(double[] a, long[] b, double[] wa, long[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new DoubleLongPairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new DoubleLongPairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new DoubleLongPairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new DoubleLongPairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class DoubleLongPairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] sa;
+        private final long[] sb;
+        private final int srcOffset;
+        private final double[] da;
+        private final long[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        DoubleLongPairMergeTask(double[] sa, long[] sb, int srcOffset, double[] da, long[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            double pl = sa[m1];
+            long pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new DoubleLongPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new DoubleLongPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class DoubleIntPairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] a;
+        private final int[] b;
+        private final double[] wa;
+        private final int[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        DoubleIntPairSortTask(double[] a, int[] b, double[] wa, int[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new DoubleIntPairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new DoubleIntPairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new DoubleIntPairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new DoubleIntPairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class DoubleIntPairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final double[] sa;
+        private final int[] sb;
+        private final int srcOffset;
+        private final double[] da;
+        private final int[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        DoubleIntPairMergeTask(double[] sa, int[] sb, int srcOffset, double[] da, int[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            double pl = sa[m1];
+            int pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new DoubleIntPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new DoubleIntPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class LongPairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final long[] a;
+        private final long[] b;
+        private final long[] wa;
+        private final long[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        LongPairSortTask(long[] a, long[] b, long[] wa, long[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new LongPairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new LongPairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new LongPairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new LongPairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class LongPairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final long[] sa;
+        private final long[] sb;
+        private final int srcOffset;
+        private final long[] da;
+        private final long[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        LongPairMergeTask(long[] sa, long[] sb, int srcOffset, long[] da, long[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            long pl = sa[m1];
+            long pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new LongPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new LongPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class LongIntPairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final long[] a;
+        private final int[] b;
+        private final long[] wa;
+        private final int[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        LongIntPairSortTask(long[] a, int[] b, long[] wa, int[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new LongIntPairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new LongIntPairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new LongIntPairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new LongIntPairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class LongIntPairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final long[] sa;
+        private final int[] sb;
+        private final int srcOffset;
+        private final long[] da;
+        private final int[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        LongIntPairMergeTask(long[] sa, int[] sb, int srcOffset, long[] da, int[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            long pl = sa[m1];
+            int pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new LongIntPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new LongIntPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class IntLongPairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final int[] a;
+        private final long[] b;
+        private final int[] wa;
+        private final long[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        IntLongPairSortTask(int[] a, long[] b, int[] wa, long[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new IntLongPairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new IntLongPairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new IntLongPairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new IntLongPairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class IntLongPairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final int[] sa;
+        private final long[] sb;
+        private final int srcOffset;
+        private final int[] da;
+        private final long[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        IntLongPairMergeTask(int[] sa, long[] sb, int srcOffset, int[] da, long[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            int pl = sa[m1];
+            long pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new IntLongPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new IntLongPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+
+    /**
+     * Sorts {@code [lo, hi)} of the primary columns {@code a} and {@code b}, which share indexes
+     * with the work columns {@code wa} and {@code wb} offset by {@code base}. The sorted result
+     * is left in the primary columns if {@code toPrimary}, or in the work columns otherwise, so
+     * that each level of merging reads from one pair of columns and writes to the other.
+     */
+    private static final class IntPairSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final int[] a;
+        private final int[] b;
+        private final int[] wa;
+        private final int[] wb;
+        private final int base;
+        private final int lo;
+        private final int hi;
+        private final int granularity;
+        private final boolean toPrimary;
+
+        IntPairSortTask(int[] a, int[] b, int[] wa, int[] wb, int base,
+                int lo, int hi, int granularity, boolean toPrimary) {
+            this.a = a;
+            this.b = b;
+            this.wa = wa;
+            this.wb = wb;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.toPrimary = toPrimary;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= granularity) {
+                quicksort(a, b, lo, hi - 1, depthLimit(n));
+                if (!toPrimary) {
+                    System.arraycopy(a, lo, wa, lo - base, n);
+                    System.arraycopy(b, lo, wb, lo - base, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                    new IntPairSortTask(a, b, wa, wb, base, lo, mid, granularity,
+                            !toPrimary),
+                    new IntPairSortTask(a, b, wa, wb, base, mid, hi, granularity,
+                            !toPrimary));
+            if (toPrimary) {
+                new IntPairMergeTask(wa, wb, base, a, b, 0,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            } else {
+                new IntPairMergeTask(a, b, 0, wa, wb, base,
+                        lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs {@code [lo1, hi1)} and {@code [lo2, hi2)} of the source columns into
+     * the destination columns starting at {@code dstLo}. Indexes are logical; the physical index
+     * into each pair of columns is found by subtracting its offset. Large merges are split by
+     * taking the middle element of the longer run and binary searching for it in the other.
+     */
+    private static final class IntPairMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1;
+
+        private final int[] sa;
+        private final int[] sb;
+        private final int srcOffset;
+        private final int[] da;
+        private final int[] db;
+        private final int dstOffset;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstLo;
+        private final int granularity;
+
+        IntPairMergeTask(int[] sa, int[] sb, int srcOffset, int[] da, int[] db,
+                int dstOffset, int lo1, int hi1, int lo2, int hi2, int dstLo, int granularity) {
+            this.sa = sa;
+            this.sb = sb;
+            this.srcOffset = srcOffset;
+            this.da = da;
+            this.db = db;
+            this.dstOffset = dstOffset;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstLo = dstLo;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            int lo1 = this.lo1 - srcOffset;
+            int hi1 = this.hi1 - srcOffset;
+            int lo2 = this.lo2 - srcOffset;
+            int hi2 = this.hi2 - srcOffset;
+            if ((hi1 - lo1) + (hi2 - lo2) <= granularity) {
+                int d = dstLo - dstOffset;
+                while (lo1 < hi1 && lo2 < hi2) {
+                    if (less(sa[lo2], sb[lo2], sa[lo1], sb[lo1])) {
+                        da[d] = sa[lo2];
+                        db[d++] = sb[lo2++];
+                    } else {
+                        da[d] = sa[lo1];
+                        db[d++] = sb[lo1++];
+                    }
+                }
+                System.arraycopy(sa, lo1, da, d, hi1 - lo1);
+                System.arraycopy(sb, lo1, db, d, hi1 - lo1);
+                d += hi1 - lo1;
+                System.arraycopy(sa, lo2, da, d, hi2 - lo2);
+                System.arraycopy(sb, lo2, db, d, hi2 - lo2);
+                return;
+            }
+            if (hi1 - lo1 < hi2 - lo2) {
+                int t = lo1;
+                lo1 = lo2;
+                lo2 = t;
+                t = hi1;
+                hi1 = hi2;
+                hi2 = t;
+            }
+            // Split the longer run at its middle element m1, and the other run at the first
+            // element that is not less than it.
+            int m1 = (lo1 + hi1) >>> 1;
+            int pl = sa[m1];
+            int pr = sb[m1];
+            int m2 = lo2;
+            int end = hi2;
+            while (m2 < end) {
+                int m = (m2 + end) >>> 1;
+                if (less(sa[m], sb[m], pl, pr)) {
+                    m2 = m + 1;
+                } else {
+                    end = m;
+                }
+            }
+            int dstMid = dstLo + (m1 - lo1) + (m2 - lo2);
+            da[dstMid - dstOffset] = pl;
+            db[dstMid - dstOffset] = pr;
+            int s = srcOffset;
+            invokeAll(
+                    new IntPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            lo1 + s, m1 + s, lo2 + s, m2 + s, dstLo, granularity),
+                    new IntPairMergeTask(sa, sb, s, da, db, dstOffset,
+                            m1 + 1 + s, hi1 + s, m2 + s, hi2 + s, dstMid + 1, granularity));
+        }
+    }
+}
@@ -13,23 +13,30 @@
 package net.mintern.primitive.pair;
 
 import java.io.Serializable;
+import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A primitive pair is a {@link Pair} that contains one or two primitive elements. Implementers of
  * this interface are modeled on the Apache Commons {@code Pair}s, but they allow the user to avoid
  * the penalty associated with boxing a primitive value into its corresponding {@code Number}.
+ * <p>
+ * Like the Apache Commons pairs, every primitive pair is also a {@link Map.Entry} whose key is the
+ * left element and whose value is the right element, so it can be handed to APIs that expect an
+ * entry without calling {@link #boxed()}. The entry methods box an element only when it is
+ * requested, and {@link Map.Entry#setValue} is only supported by mutable pairs.
  *
  * @param <L> the left element type, or its boxed type if the left element is a primitive
  * @param <R> the right element's boxed type
  * @author Brandon Mintern
  */
-public interface PrimitivePair<L, R> extends Serializable {
+public interface PrimitivePair<L, R> extends Map.Entry<L, R>, Serializable {
 
     /**
      * Obtains the pair that results from converting the left and right elements to their boxed
      * counterparts. This allows primitive pairs to be used in contexts that expect an Apache
-     * Commons pair.
+     * Commons pair. Callers that only need a {@link Map.Entry} can use this pair directly, which
+     * avoids allocating a new pair.
      * <p>
      * Implementers will generally override this to return a pair whose mutability matches their
      * own, either an {@link org.apache.commons.lang3.tuple.ImmutablePair} or a
@@ -0,0 +1,235 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+
+/**
+ * The serialized form of the immutable and mutable pair classes. Each pair is written as a
+ * one-byte type, identifying its shape and mutability, followed by its elements as raw primitives
+ * (or, for an object element, as an object). Being {@code Externalizable}, this writes a single
+ * short class descriptor per stream, rather than descriptors of both the pair class and its
+ * abstract base class, and none of the per-field metadata of default serialization.
+ * <p>
+ * The pair classes substitute this class in {@code writeReplace}, and it substitutes the pair it
+ * read in {@code readResolve}. Streams that were written before this class existed hold the pair
+ * classes' default serialized form, which they can still read.
+ *
+ * @author Brandon Mintern
+ */
+final class Ser implements Externalizable {
+
+    private static final long serialVersionUID = 1;
+
+    /* Shape types; the primitive ones match the PairShape tags. */
+    static final byte DOUBLE_PAIR = 1;
+    static final byte DOUBLE_LONG_PAIR = 2;
+    static final byte DOUBLE_INT_PAIR = 3;
+    static final byte LONG_PAIR = 4;
+    static final byte LONG_INT_PAIR = 5;
+    static final byte INT_LONG_PAIR = 6;
+    static final byte INT_PAIR = 7;
+    static final byte OBJ_DOUBLE_PAIR = 8;
+    static final byte OBJ_LONG_PAIR = 9;
+    static final byte OBJ_INT_PAIR = 10;
+
+    /** Added to a shape type for a mutable pair. */
+    static final byte MUTABLE = 0x40;
+
+    private byte type;
+    private Object object;
+
+    /**
+     * Creates an instance for deserialization.
+     */
+    public Ser() {}
+
+    /**
+     * Creates an instance for serializing a pair.
+     *
+     * @param type  the shape type of the pair, plus {@link #MUTABLE} for a mutable pair
+     * @param object  the pair, not null
+     */
+    Ser(byte type, Object object) {
+        this.type = type;
+        this.object = object;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(type);
+        switch (type & ~MUTABLE) {
+            case DOUBLE_PAIR: {
+                DoublePair p = (DoublePair) object;
+                out.writeDouble(p.getLeft());
+                out.writeDouble(p.getRight());
+                break;
+            }
+            case DOUBLE_LONG_PAIR: {
+                DoubleLongPair p = (DoubleLongPair) object;
+                out.writeDouble(p.getLeft());
+                out.writeLong(p.getRight());
+                break;
+            }
+            case DOUBLE_INT_PAIR: {
+                DoubleIntPair p = (DoubleIntPair) object;
+                out.writeDouble(p.getLeft());
+                out.writeInt(p.getRight());
+                break;
+            }
+            case LONG_PAIR: {
+                LongPair p = (LongPair) object;
+                out.writeLong(p.getLeft());
+                out.writeLong(p.getRight());
+                break;
+            }
+            case LONG_INT_PAIR: {
+                LongIntPair p = (LongIntPair) object;
+                out.writeLong(p.getLeft());
+                out.writeInt(p.getRight());
+                break;
+            }
+            case INT_LONG_PAIR: {
+                IntLongPair p = (IntLongPair) object;
+                out.writeInt(p.getLeft());
+                out.writeLong(p.getRight());
+                break;
+            }
+            case INT_PAIR: {
+                IntPair p = (IntPair) object;
+                out.writeInt(p.getLeft());
+                out.writeInt(p.getRight());
+                break;
+            }
+            case OBJ_DOUBLE_PAIR: {
+                ObjDoublePair<?> p = (ObjDoublePair<?>) object;
+                out.writeObject(p.getLeft());
+                out.writeDouble(p.getRight());
+                break;
+            }
+            case OBJ_LONG_PAIR: {
+                ObjLongPair<?> p = (ObjLongPair<?>) object;
+                out.writeObject(p.getLeft());
+                out.writeLong(p.getRight());
+                break;
+            }
+            case OBJ_INT_PAIR: {
+                ObjIntPair<?> p = (ObjIntPair<?>) object;
+                out.writeObject(p.getLeft());
+                out.writeInt(p.getRight());
+                break;
+            }
+            default:
+                throw new InvalidObjectException("Unknown pair type: " + type);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        type = in.readByte();
+        boolean mutable = (type & MUTABLE) != 0;
+        switch (type & ~MUTABLE) {
+            case DOUBLE_PAIR: {
+                double left = in.readDouble();
+                double right = in.readDouble();
+                object = mutable
+                        ? new MutableDoublePair(left, right)
+                        : ImmutableDoublePair.of(left, right);
+                break;
+            }
+            case DOUBLE_LONG_PAIR: {
+                double left = in.readDouble();
+                long right = in.readLong();
+                object = mutable
+                        ? new MutableDoubleLongPair(left, right)
+                        : ImmutableDoubleLongPair.of(left, right);
+                break;
+            }
+            case DOUBLE_INT_PAIR: {
+                double left = in.readDouble();
+                int right = in.readInt();
+                object = mutable
+                        ? new MutableDoubleIntPair(left, right)
+                        : ImmutableDoubleIntPair.of(left, right);
+                break;
+            }
+            case LONG_PAIR: {
+                long left = in.readLong();
+                long right = in.readLong();
+                object = mutable
+                        ? new MutableLongPair(left, right)
+                        : ImmutableLongPair.of(left, right);
+                break;
+            }
+            case LONG_INT_PAIR: {
+                long left = in.readLong();
+                int right = in.readInt();
+                object = mutable
+                        ? new MutableLongIntPair(left, right)
+                        : ImmutableLongIntPair.of(left, right);
+                break;
+            }
+            case INT_LONG_PAIR: {
+                int left = in.readInt();
+                long right = in.readLong();
+                object = mutable
+                        ? new MutableIntLongPair(left, right)
+                        : ImmutableIntLongPair.of(left, right);
+                break;
+            }
+            case INT_PAIR: {
+                int left = in.readInt();
+                int right = in.readInt();
+                object = mutable
+                        ? new MutableIntPair(left, right)
+                        : ImmutableIntPair.of(left, right);
+                break;
+            }
+            case OBJ_DOUBLE_PAIR: {
+                Object left = in.readObject();
+                double right = in.readDouble();
+                object = mutable
+                        ? new MutableObjDoublePair<>(left, right)
+                        : ImmutableObjDoublePair.of(left, right);
+                break;
+            }
+            case OBJ_LONG_PAIR: {
+                Object left = in.readObject();
+                long right = in.readLong();
+                object = mutable
+                        ? new MutableObjLongPair<>(left, right)
+                        : ImmutableObjLongPair.of(left, right);
+                break;
+            }
+            case OBJ_INT_PAIR: {
+                Object left = in.readObject();
+                int right = in.readInt();
+                object = mutable
+                        ? new MutableObjIntPair<>(left, right)
+                        : ImmutableObjIntPair.of(left, right);
+                break;
+            }
+            default:
+                throw new StreamCorruptedException("Unknown pair type: " + type);
+        }
+    }
+
+    private Object readResolve() {
+        return object;
+    }
+}
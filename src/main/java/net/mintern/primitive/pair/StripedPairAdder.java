@@ -0,0 +1,180 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The striping machinery shared by the pair adders, modeled on the {@code Striped64} class behind
+ * {@code java.util.concurrent.atomic.LongAdder}. Each cell holds a running (first, second) pair
+ * of {@code long}s. Updates go to a base cell until two threads collide on it, and then to an
+ * array of cells, indexed by a per-thread hash, that grows up to the number of processors.
+ * <p>
+ * The first element of a cell is updated with a compare-and-set, whose failure is how contention
+ * is detected; subclasses define how a value is added to it in {@link #addToFirst}, and a first
+ * element of {@code 0L} must represent zero. The second element is a count that is added to
+ * unconditionally afterward.
+ *
+ * @author Brandon Mintern
+ */
+abstract class StripedPairAdder {
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    private static final AtomicIntegerFieldUpdater<StripedPairAdder> BUSY =
+            AtomicIntegerFieldUpdater.newUpdater(StripedPairAdder.class, "busy");
+
+    private static final AtomicInteger SEEDS = new AtomicInteger();
+
+    /** Each thread's hash for choosing a cell, changed whenever the thread hits contention. */
+    private static final ThreadLocal<int[]> PROBE = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            int seed = SEEDS.getAndAdd(0x9E3779B9);
+            return new int[] {seed == 0 ? 1 : seed};
+        }
+    };
+
+    /**
+     * A cell padded on both sides so that cells updated by different threads do not share a
+     * cache line.
+     */
+    static final class Cell {
+
+        static final AtomicLongFieldUpdater<Cell> FIRST =
+                AtomicLongFieldUpdater.newUpdater(Cell.class, "first");
+        static final AtomicLongFieldUpdater<Cell> SECOND =
+                AtomicLongFieldUpdater.newUpdater(Cell.class, "second");
+
+        volatile long p0, p1, p2, p3, p4, p5, p6;
+        volatile long first;
+        volatile long second;
+        volatile long q0, q1, q2, q3, q4, q5, q6;
+
+        Cell(long first, long second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /** The cell that is updated until there is contention. */
+    final Cell base;
+
+    /** The cells used under contention, or null until then; the length is a power of 2. */
+    volatile Cell[] cells;
+
+    /** A spin lock, held while creating or resizing {@link #cells}. */
+    private volatile int busy;
+
+    StripedPairAdder() {
+        base = new Cell(0, 0);
+    }
+
+    /**
+     * Computes the new first element of a cell after adding {@code x}.
+     *
+     * @param first  the current first element
+     * @param x  the value being added, in the same encoding as {@code first}
+     * @return the new first element
+     */
+    abstract long addToFirst(long first, long x);
+
+    /**
+     * Adds {@code x} to the first element and {@code n} to the second element of some cell.
+     */
+    final void update(long x, long n) {
+        Cell[] cs = cells;
+        Cell c;
+        if (cs == null) {
+            if (tryAdd(base, x, n)) {
+                return;
+            }
+        } else if ((c = cs[PROBE.get()[0] & (cs.length - 1)]) != null && tryAdd(c, x, n)) {
+            return;
+        }
+        addContended(x, n);
+    }
+
+    private boolean tryAdd(Cell c, long x, long n) {
+        long v = c.first;
+        if (Cell.FIRST.compareAndSet(c, v, addToFirst(v, x))) {
+            Cell.SECOND.getAndAdd(c, n);
+            return true;
+        }
+        return false;
+    }
+
+    private void addContended(long x, long n) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        for (;;) {
+            Cell[] cs = cells;
+            if (cs == null) {
+                if (busy == 0 && BUSY.compareAndSet(this, 0, 1)) {
+                    try {
+                        if (cells == null) {
+                            Cell[] created = new Cell[2];
+                            created[h & 1] = newCell(x, n);
+                            cells = created;
+                            return;
+                        }
+                    } finally {
+                        busy = 0;
+                    }
+                }
+                if (tryAdd(base, x, n)) {
+                    return;
+                }
+            } else {
+                int i = h & (cs.length - 1);
+                Cell c = cs[i];
+                if (c == null) {
+                    if (busy == 0 && BUSY.compareAndSet(this, 0, 1)) {
+                        try {
+                            if (cells == cs && cs[i] == null) {
+                                cs[i] = newCell(x, n);
+                                return;
+                            }
+                        } finally {
+                            busy = 0;
+                        }
+                    }
+                } else if (tryAdd(c, x, n)) {
+                    return;
+                } else if (cs.length < NCPU && cells == cs && busy == 0
+                        && BUSY.compareAndSet(this, 0, 1)) {
+                    try {
+                        if (cells == cs) {
+                            Cell[] grown = new Cell[cs.length << 1];
+                            System.arraycopy(cs, 0, grown, 0, cs.length);
+                            cells = grown;
+                        }
+                    } finally {
+                        busy = 0;
+                    }
+                    continue;
+                }
+            }
+            h ^= h << 13;
+            h ^= h >>> 17;
+            h ^= h << 5;
+            probe[0] = h;
+        }
+    }
+
+    private Cell newCell(long x, long n) {
+        return new Cell(addToFirst(0, x), n);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+/**
+ * Zig-zag and variable-length integer encoding, as in Protocol Buffers. A varint stores 7 bits per
+ * byte, least significant group first, and sets the high bit of every byte except the last, so
+ * small values take few bytes. Zig-zag encoding maps signed values of small magnitude to small
+ * unsigned values (0, -1, 1, -2, ... to 0, 1, 2, 3, ...) so that they also encode compactly.
+ *
+ * @author Brandon Mintern
+ */
+final class Varints {
+
+    /** The most bytes that a varint of an {@code int} occupies. */
+    static final int MAX_INT_BYTES = 5;
+
+    /** The most bytes that a varint of a {@code long} occupies. */
+    static final int MAX_LONG_BYTES = 10;
+
+    private Varints() {}
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes the varint of an unsigned {@code int}.
+     *
+     * @param buf  the buffer, which must have room for {@link #MAX_INT_BYTES} at {@code pos}
+     * @param pos  the index at which to write
+     * @param value  the value, treated as unsigned
+     * @return the index after the last byte written
+     */
+    static int put(byte[] buf, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    /**
+     * Writes the varint of an unsigned {@code long}.
+     *
+     * @param buf  the buffer, which must have room for {@link #MAX_LONG_BYTES} at {@code pos}
+     * @param pos  the index at which to write
+     * @param value  the value, treated as unsigned
+     * @return the index after the last byte written
+     */
+    static int put(byte[] buf, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    /**
+     * Determines whether a byte is the last byte of a varint.
+     *
+     * @param b  a byte of a varint
+     * @return true if no more bytes of the same varint follow {@code b}
+     */
+    static boolean isLast(byte b) {
+        return b >= 0;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.function;
+
+import net.mintern.primitive.pair.DoublePair;
+
+/**
+ * A predicate on the elements of a {@link DoublePair}. The elements are passed separately so that
+ * callers need not create a pair.
+ *
+ * @author Brandon Mintern
+ */
+public interface DoubleDoublePredicate {
+
+    /**
+     * Evaluates this predicate on the elements of a pair.
+     *
+     * @param left  the left element
+     * @param right  the right element
+     * @return true if the pair matches the predicate
+     */
+    boolean test(double left, double right);
+}
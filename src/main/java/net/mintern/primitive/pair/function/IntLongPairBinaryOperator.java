@@ -0,0 +1,35 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair.function;
+
+import net.mintern.primitive.pair.IntLongPair;
+
+/**
+ * An operation that combines two {@link IntLongPair}s into a third, such as for a reduction. The
+ * elements of the operands are passed separately so that callers need not create pairs for them.
+ *
+ * @author Brandon Mintern
+ */
+public interface IntLongPairBinaryOperator {
+
+    /**
+     * Applies this operator to the elements of two pairs.
+     *
+     * @param left1  the left element of the first operand
+     * @param right1  the right element of the first operand
+     * @param left2  the left element of the second operand
+     * @param right2  the right element of the second operand
+     * @return the result, not null
+     */
+    IntLongPair apply(int left1, long right1, int left2, long right2);
+}
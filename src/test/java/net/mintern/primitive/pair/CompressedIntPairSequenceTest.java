@@ -0,0 +1,55 @@
+/*
+ * Brandon Mintern licenses this file to You under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.mintern.primitive.pair;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CompressedIntPairSequenceTest {
+
+    private static CompressedIntPairSequence sequence(int size) {
+        CompressedIntPairSequence seq = new CompressedIntPairSequence();
+        for (int i = 0; i < size; i++) {
+            seq.add(1000 + 10 * i, i);
+        }
+        return seq;
+    }
+
+    private static void assertCursorAtEndSeesAppend(int size) {
+        CompressedIntPairSequence seq = sequence(size);
+        CompressedIntPairSequence.Cursor cursor = seq.cursor(seq.size());
+        assertFalse(cursor.next());
+        seq.add(2000, 99);
+        assertTrue(cursor.next());
+        assertEquals(size, cursor.index());
+        assertEquals(2000, cursor.getLeft());
+        assertEquals(99, cursor.getRight());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void cursorAtEndSeesAppendOffBlockBoundary() {
+        assertCursorAtEndSeesAppend(5);
+        assertCursorAtEndSeesAppend(CompressedIntPairSequence.BLOCK_SIZE + 3);
+    }
+
+    @Test
+    public void cursorAtEndSeesAppendAtBlockBoundary() {
+        assertCursorAtEndSeesAppend(0);
+        assertCursorAtEndSeesAppend(CompressedIntPairSequence.BLOCK_SIZE);
+    }
+}